@@ -0,0 +1,173 @@
+package semestralka;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Davka cisel vrcholu prenasena mezi koordinatorem a pracovnimi procesy.
+ * Pred odeslanim se cisla seradi a odstrani se duplicity. Pak se ulozi jako
+ * rozdily sousednich hodnot s promennou delkou (7 bitu na bajt) a nakonec se
+ * zkomprimuji algoritmem Deflate. Pokud by komprese data zvetsila, posilaji
+ * se jen rozdily.
+ * 
+ * Format: <code>int pocet, byte komprese, int delka, byte[delka]</code>.
+ * 
+ * @author Martin Zlamal
+ */
+class BalikId {
+    /** Cisla vrcholu. */
+    private int[] data = new int[16];
+    /** Pocet platnych prvku v poli <code>data</code>. */
+    private int pocet = 0;
+    /** Velikost davky pri poslednim prenosu v bajtech. */
+    private int bajtu = 0;
+
+    /**
+     * Prida cislo vrcholu do davky.
+     * 
+     * @param id
+     *            cislo vrcholu
+     */
+    public void pridej(int id) {
+	if (pocet == data.length) {
+	    data = Arrays.copyOf(data, pocet * 2);
+	}
+	data[pocet++] = id;
+    }
+
+    /**
+     * Getr poctu cisel v davce.
+     * 
+     * @return pocet cisel
+     */
+    public int getPocet() {
+	return pocet;
+    }
+
+    /**
+     * Getr cisla vrcholu.
+     * 
+     * @param index
+     *            poradi v davce
+     * @return cislo vrcholu
+     */
+    public int get(int index) {
+	return data[index];
+    }
+
+    /**
+     * Getr velikosti davky pri poslednim prenosu.
+     * 
+     * @return pocet odeslanych nebo prijatych bajtu
+     */
+    public int getBajtu() {
+	return bajtu;
+    }
+
+    /**
+     * Seradi davku, odstrani duplicity, zkomprimuje ji a zapise do proudu.
+     * 
+     * @param out
+     *            vystupni proud
+     * @return pocet zapsanych bajtu
+     * @throws IOException
+     *             pri chybe zapisu
+     */
+    public int zapis(DataOutputStream out) throws IOException {
+	Arrays.sort(data, 0, pocet);
+	int unikatnich = 0;
+	for (int index = 0; index < pocet; index++) {
+	    if (unikatnich == 0 || data[index] != data[unikatnich - 1]) {
+		data[unikatnich++] = data[index];
+	    }
+	}
+	pocet = unikatnich;
+
+	byte[] rozdily = new byte[pocet * 5];
+	int delka = 0;
+	int predchozi = 0;
+	for (int index = 0; index < pocet; index++) {
+	    int hodnota = data[index] - predchozi;
+	    predchozi = data[index];
+	    while ((hodnota & ~0x7F) != 0) {
+		rozdily[delka++] = (byte) ((hodnota & 0x7F) | 0x80);
+		hodnota >>>= 7;
+	    }
+	    rozdily[delka++] = (byte) hodnota;
+	}
+
+	Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+	deflater.setInput(rozdily, 0, delka);
+	deflater.finish();
+	byte[] komprimovane = new byte[delka + 64];
+	int komprimovanych = deflater.deflate(komprimovane);
+	boolean komprese = deflater.finished() && komprimovanych < delka;
+	deflater.end();
+
+	out.writeInt(pocet);
+	out.writeBoolean(komprese);
+	if (komprese) {
+	    out.writeInt(komprimovanych);
+	    out.write(komprimovane, 0, komprimovanych);
+	} else {
+	    out.writeInt(delka);
+	    out.write(rozdily, 0, delka);
+	}
+	bajtu = 9 + (komprese ? komprimovanych : delka);
+	return bajtu;
+    }
+
+    /**
+     * Precte davku z proudu.
+     * 
+     * @param in
+     *            vstupni proud
+     * @return prectena davka
+     * @throws IOException
+     *             pri chybe cteni nebo poskozenych datech
+     */
+    public static BalikId cti(DataInputStream in) throws IOException {
+	BalikId balik = new BalikId();
+	int pocet = in.readInt();
+	boolean komprese = in.readBoolean();
+	int delka = in.readInt();
+	byte[] vstup = new byte[delka];
+	in.readFully(vstup);
+	byte[] rozdily = vstup;
+	if (komprese) {
+	    rozdily = new byte[pocet * 5];
+	    Inflater inflater = new Inflater();
+	    inflater.setInput(vstup);
+	    try {
+		inflater.inflate(rozdily);
+	    } catch (DataFormatException e) {
+		throw new IOException(e);
+	    } finally {
+		inflater.end();
+	    }
+	}
+	balik.data = new int[Math.max(pocet, 1)];
+	int pozice = 0;
+	int predchozi = 0;
+	for (int index = 0; index < pocet; index++) {
+	    int hodnota = 0;
+	    int posun = 0;
+	    byte b;
+	    do {
+		b = rozdily[pozice++];
+		hodnota |= (b & 0x7F) << posun;
+		posun += 7;
+	    } while ((b & 0x80) != 0);
+	    predchozi += hodnota;
+	    balik.data[index] = predchozi;
+	}
+	balik.pocet = pocet;
+	balik.bajtu = 9 + delka;
+	return balik;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,229 @@
+package semestralka;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Prohledavani grafu (orientovaneho i neorientovaneho) do sirky (BFS) pomoci
+ * linearni algebry nad bitovou matici sousednosti. Kazda uroven BFS se
+ * pocita jako maskovany soucin booleovske matice a vektoru
+ * <code>dalsi = (A^T . fronta) AND NOT navstivene</code>, kde fronta,
+ * navstivene vrcholy i radky matice jsou bitove vektory.
+ * 
+ * Soucin se pocita jednim ze dvou smeru podle toho, co je levnejsi. Pokud je
+ * fronta mensi nez pocet nenavstivenych vrcholu, sectou se (OR) radky matice
+ * vsech vrcholu fronty. Jinak se pro kazdy nenavstiveny vrchol zjisti, zda ma
+ * jeho sloupec neprazdny prunik s frontou. Obe operace zpracovavaji cele
+ * bitove vektory, takze husta fronta se zpracuje po sirce SIMD registru, a
+ * ne po jednom vrcholu.
+ * 
+ * Vektorove operace se pouziji, pokud je prelozena trida
+ * <code>VektoroveOperace</code> z adresare <code>vektor</code> a JVM byl
+ * spusten s parametrem <code>--add-modules jdk.incubator.vector</code>, jinak
+ * se pouziji skalarni. Ostatni tridy se prekladaji bez tohoto modulu, trida
+ * s vektorovymi operacemi se preklada zvlast:
+ * 
+ * <pre>
+ * javac -d tridy *.java
+ * javac --add-modules jdk.incubator.vector -cp tridy -d tridy \
+ *     vektor/VektoroveOperace.java
+ * </pre>
+ * 
+ * V ramci jedne urovne se vrcholy vypisuji v poradi, v jakem byly nacteny
+ * ze vstupu.
+ * 
+ * @author Martin Zlamal
+ */
+public class BitovaMatice {
+    /** Nazev modulu s vektorovym API. */
+    private static final String MODUL = "jdk.incubator.vector";
+
+    /** Operace nad bitovymi vektory. */
+    private final BitoveOperace operace = vytvorOperace();
+
+    /** Privatni trida reprezentujici graf. */
+    private class Graf {
+	/** Slovnik klicu vrcholu. */
+	private final SlovnikVrcholu slovnik;
+	/** Pocet vrcholu grafu. */
+	private final int pocet;
+	/** Pocet 64bitovych slov jednoho bitoveho vektoru. */
+	private final int slov;
+	/** Radky matice sousednosti, tj. vystupni sousede vrcholu. */
+	private final long[][] radky;
+	/** Sloupce matice sousednosti, tj. vstupni sousede vrcholu. */
+	private final long[][] sloupce;
+
+	/**
+	 * Konstruktor grafu zajistujici inicializaci bitove matice.
+	 * 
+	 * @param slovnik
+	 *            slovnik klicu vrcholu
+	 */
+	public Graf(SlovnikVrcholu slovnik) {
+	    this.slovnik = slovnik;
+	    this.pocet = slovnik.getPocet();
+	    this.slov = (pocet + 63) >>> 6;
+	    this.radky = new long[pocet][slov];
+	    this.sloupce = new long[pocet][slov];
+	}
+
+	/**
+	 * Pridani orientovane hrany grafu.
+	 * 
+	 * @param u
+	 *            cislo vrcholu ze ktereho bude hrana vychazet
+	 * @param v
+	 *            cislo vrcholu do ktereho bude hrana prichazet
+	 */
+	public void addOriEdge(int u, int v) {
+	    radky[u][v >>> 6] |= 1L << v;
+	    sloupce[v][u >>> 6] |= 1L << u;
+	}
+
+	/**
+	 * Pridani neorientovane hrany grafu, tj. hrany v obou smerech.
+	 * 
+	 * @param start
+	 *            cislo vrcholu ze ktereho bude hrana vychazet
+	 * @param end
+	 *            cislo vrcholu do ktereho bude hrana prichazet
+	 */
+	public void addNoriEdge(int start, int end) {
+	    addOriEdge(start, end);
+	    addOriEdge(end, start);
+	}
+
+	/**
+	 * Hlavni metoda zajistujici prohledavani grafu do sirky (BFS) po
+	 * celych urovnich.
+	 * 
+	 * @param start
+	 *            pocatecni vrchol ze ktereho se zacne graf prohledavat
+	 * @param file
+	 *            <code>PrintWriter</code> pro tisknuti do souboru
+	 * @return popis jednotlivych urovni pro vypis
+	 */
+	public String BFS(String start, PrintWriter file) {
+	    int pozice = slovnik.najdi(start);
+	    if (pozice == -1) {
+		System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
+		System.exit(1);
+	    }
+	    long[] navstivene = new long[slov];
+	    long[] fronta = new long[slov];
+	    long[] dalsi = new long[slov];
+	    navstivene[pozice >>> 6] |= 1L << pozice;
+	    fronta[pozice >>> 6] |= 1L << pozice;
+	    int velikost = 1;
+	    int zbyva = pocet - 1;
+	    boolean prvni = true;
+	    StringBuilder urovne = new StringBuilder();
+	    for (int uroven = 0; velikost > 0; uroven++) {
+		for (int slovo = 0; slovo < slov; slovo++) {
+		    for (long bity = fronta[slovo]; bity != 0; bity &= bity - 1) {
+			String klic = slovnik.getKlic((slovo << 6) + Long.numberOfTrailingZeros(bity)) + " ";
+			if (!prvni) {
+			    klic = ", " + klic;
+			}
+			prvni = false;
+			System.out.print(klic);
+			file.print(klic);
+		    }
+		}
+		boolean dopredu = velikost <= zbyva;
+		Arrays.fill(dalsi, 0L);
+		if (dopredu) {
+		    for (int slovo = 0; slovo < slov; slovo++) {
+			for (long bity = fronta[slovo]; bity != 0; bity &= bity - 1) {
+			    operace.or(dalsi, radky[(slovo << 6) + Long.numberOfTrailingZeros(bity)]);
+			}
+		    }
+		} else {
+		    for (int slovo = 0; slovo < slov; slovo++) {
+			long bity = ~navstivene[slovo];
+			if (slovo == slov - 1 && (pocet & 63) != 0) {
+			    bity &= (1L << pocet) - 1;
+			}
+			for (; bity != 0; bity &= bity - 1) {
+			    int v = (slovo << 6) + Long.numberOfTrailingZeros(bity);
+			    if (operace.prunik(sloupce[v], fronta)) {
+				dalsi[slovo] |= 1L << v;
+			    }
+			}
+		    }
+		}
+		int nove = operace.andNot(dalsi, navstivene);
+		operace.or(navstivene, dalsi);
+		urovne.append("\n  uroven " + uroven + ": fronta " + velikost + ", smer "
+			+ (dopredu ? "radky (push)" : "sloupce (pull)") + ", novych " + nove);
+		long[] tmp = fronta;
+		fronta = dalsi;
+		dalsi = tmp;
+		velikost = nove;
+		zbyva -= nove;
+	    }
+	    System.out.println();
+	    file.println();
+	    return urovne.toString();
+	}
+    }
+
+    /**
+     * Vytvori vektorove operace, pokud je modul s vektorovym API nacten a
+     * trida s vektorovymi operacemi prelozena, jinak skalarni.
+     * 
+     * @return operace nad bitovymi vektory
+     */
+    private static BitoveOperace vytvorOperace() {
+	if (ModuleLayer.boot().findModule(MODUL).isPresent()) {
+	    try {
+		return (BitoveOperace) Class.forName("semestralka.VektoroveOperace")
+			.getDeclaredConstructor().newInstance();
+	    } catch (ClassNotFoundException e) {
+		// trida s vektorovymi operacemi nebyla prelozena
+	    } catch (ReflectiveOperationException e) {
+		e.printStackTrace();
+	    } catch (LinkageError e) {
+		e.printStackTrace();
+	    }
+	}
+	return new SkalarniOperace();
+    }
+
+    /**
+     * Inicializacni metoda zajistujici obsluhu grafu a spravne vkladani vrcholu
+     * a hran grafu.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu a startovnim vrcholu
+     */
+    public void init(DataParser dataParser) {
+	int[] hrany = dataParser.getHrany();
+	boolean addOriEdge = dataParser.getAddOriEdge();
+	String start = dataParser.getStart();
+
+	Graf graf = new Graf(dataParser.getVrcholy());
+	for (int index = 0; index < dataParser.getPocetHran(); index++) {
+	    if (addOriEdge) {
+		graf.addOriEdge(hrany[2 * index], hrany[2 * index + 1]);
+	    } else {
+		graf.addNoriEdge(hrany[2 * index], hrany[2 * index + 1]);
+	    }
+	}
+	PrintWriter file = null;
+	try {
+	    file = new PrintWriter(new FileWriter("vystup.txt"));
+	} catch (IOException e) {
+	    e.printStackTrace();
+	}
+	System.out.print("\nBFS(" + start + "): ");
+	file.print("BFS(" + start + "): ");
+	String urovne = graf.BFS(start, file);
+	file.close();
+	System.out.println("Operace: " + operace.getNazev() + urovne);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package semestralka;
+
+/**
+ * Operace nad bitovymi vektory ulozenymi v poli <code>long</code>. Kazdy bit
+ * odpovida jednomu vrcholu grafu. Existuji dve implementace, skalarni
+ * {@link SkalarniOperace} a vektorova <code>VektoroveOperace</code>, ktera
+ * vyuziva SIMD instrukce pres modul <code>jdk.incubator.vector</code> a
+ * preklada se zvlast (viz {@link BitovaMatice}).
+ * 
+ * @author Martin Zlamal
+ */
+interface BitoveOperace {
+
+    /**
+     * Logicky soucet <code>cil |= zdroj</code>.
+     * 
+     * @param cil
+     *            bitovy vektor, do ktereho se vysledek uklada
+     * @param zdroj
+     *            pricitany bitovy vektor stejne delky
+     */
+    void or(long[] cil, long[] zdroj);
+
+    /**
+     * Maskovani <code>cil &= ~maska</code>.
+     * 
+     * @param cil
+     *            bitovy vektor, do ktereho se vysledek uklada
+     * @param maska
+     *            bitovy vektor stejne delky, jehoz bity se v cili nuluji
+     * @return pocet jednicek ve vysledku
+     */
+    int andNot(long[] cil, long[] maska);
+
+    /**
+     * Zjisti, zda maji dva bitove vektory neprazdny prunik.
+     * 
+     * @param a
+     *            prvni bitovy vektor
+     * @param b
+     *            druhy bitovy vektor stejne delky
+     * @return <code>true</code> pokud existuje bit nastaveny v obou
+     */
+    boolean prunik(long[] a, long[] b);
+
+    /**
+     * Nazev implementace pro vypis.
+     * 
+     * @return nazev implementace
+     */
+    String getNazev();
+}
\ No newline at end of file
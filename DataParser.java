@@ -1,6 +1,11 @@
 package semestralka;
 
-import java.util.LinkedList;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -16,18 +21,49 @@ public class DataParser {
      * orientovany graf.
      */
     private boolean addOriEdge = false;
-    /** Cislo z intervalu <1, 4> informujici o variante grafu. */
+    /** Cislo z intervalu <1, 15> informujici o variante grafu. */
     private final int varianta;
     /** Startovni vrchol. Vrchol ze ktereho se bude prohledavat. */
     private final String start;
-    /** <code>LinkedList</code> obsahujici vrcholy. */
-    private final LinkedList<String> vrcholy = new LinkedList<String>();
-    /** <code>LinkdeList</code> obsahujici hrany. */
-    private final LinkedList<String> hrany = new LinkedList<String>();
+    /** Slovnik klicu vrcholu, cislo vrcholu je jeho poradi ve slovniku. */
+    private final SlovnikVrcholu vrcholy = new SlovnikVrcholu();
+    /**
+     * Hrany jako dvojice cisel vrcholu, hrana <code>i</code> vede z vrcholu
+     * <code>hrany[2i]</code> do vrcholu <code>hrany[2i+1]</code>.
+     */
+    private int[] hrany = new int[32];
+    /** Pocet hran. */
+    private int pocetHran = 0;
+    /**
+     * Vahy hran ve stejnem poradi jako pole hran, hrana <code>i</code> ma
+     * vahu <code>vahy[i]</code>. Pole vznikne az s prvni hranou se zadanou
+     * vahou, do te doby maji vsechny hrany vahu 1.
+     */
+    private int[] vahy = null;
+    /**
+     * Odebirane hrany jako dvojice cisel vrcholu ve stejnem tvaru jako pole
+     * hran. Pouziva je jen prirustkove nacteni ({@link PrirustkovyGraf}).
+     */
+    private int[] odebrane = new int[0];
+    /** Pocet odebiranych hran. */
+    private int pocetOdebranych = 0;
+    /**
+     * Docasny soubor s hranami u variant s hranami na disku (8, 10, 11). Hrany
+     * se pak do pole hran neukladaji, v souboru jsou jako dvojice cisel
+     * <code>int</code>.
+     */
+    private File souborHran = null;
+    /** Proud do docasneho souboru s hranami. */
+    private DataOutputStream zapisHran = null;
 
     /**
      * Konstruktor dataParseru zajistujici cele zpracovani dat vstupujicich ze
-     * scanneru.
+     * scanneru. U varianty s vahami (13) muze mit hrana za dvojteckou
+     * nezapornou celociselnou vahu, napr. <code>a>b:7</code>, hrana bez vahy
+     * ma vahu 1. Ostatni varianty berou dvojtecku jako soucast nazvu
+     * vrcholu. U prirustkoveho nacteni (varianty 14 a 15) se hrana s
+     * pomlckou na zacatku, napr. <code>-a>b</code>, odebira. Ostatni varianty
+     * berou pomlcku jako soucast nazvu vrcholu.
      * 
      * @param scan
      *            scanner ze ktereho bude trida zpracovavat data
@@ -44,21 +80,57 @@ public class DataParser {
 	if (!soubor) {
 	    System.out.println("Hrany (ukonceni vykricnikem): ");
 	}
+	if (varianta == 8 || varianta == 10 || varianta == 11) {
+	    try {
+		souborHran = File.createTempFile("vstup", ".bin");
+		souborHran.deleteOnExit();
+		zapisHran = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(souborHran), 1 << 16));
+	    } catch (IOException e) {
+		chybaZapisu(e);
+	    }
+	}
 	for (; scan.hasNext() && !scan.hasNext("!");) {
 	    String tmp = scan.next();
-	    if (tmp.contains("=")) {
-		hrany.add(tmp);
-	    } else if (tmp.contains(">")) {
-		this.addOriEdge = true;
-		hrany.add(tmp);
-	    } else if (tmp.contains("<")) {
-		this.addOriEdge = true;
-		String[] pole = tmp.split("<");
-		pole = swap(pole, 0, 1);
-		hrany.add(pole[0] + ">" + pole[1]);
+	    boolean odebrat = (varianta == 14 || varianta == 15) && tmp.length() > 1 && tmp.charAt(0) == '-'
+		    && tmp.substring(1).matches(".+[=<>].*");
+	    if (odebrat) {
+		tmp = tmp.substring(1);
+	    }
+	    int vaha = 1;
+	    int dvojtecka = tmp.lastIndexOf(':');
+	    if (varianta == 13 && dvojtecka > 0 && tmp.substring(dvojtecka + 1).matches("-?[0-9]{1,9}")
+		    && tmp.substring(0, dvojtecka).matches(".*[=<>].*")) {
+		vaha = Integer.parseInt(tmp.substring(dvojtecka + 1));
+		if (vaha < 0) {
+		    System.out.println("\nZaporna vaha hrany \"" + tmp + "\" neni podporovana!");
+		    System.exit(1);
+		}
+		tmp = tmp.substring(0, dvojtecka);
+		if (vahy == null) {
+		    vahy = new int[hrany.length / 2];
+		    Arrays.fill(vahy, 1);
+		}
 	    }
 	    String[] pole = tmp.split("[=<>]+");
-	    vrchol(pole[0], pole[1]);
+	    int[] cisla = vrchol(pole[0], pole[1]);
+	    if (!tmp.contains("=")) {
+		this.addOriEdge = true;
+		if (!tmp.contains(">")) {
+		    cisla = swap(cisla, 0, 1);
+		}
+	    }
+	    if (odebrat) {
+		odeber(cisla[0], cisla[1]);
+	    } else {
+		hrana(cisla[0], cisla[1], vaha);
+	    }
+	}
+	if (zapisHran != null) {
+	    try {
+		zapisHran.close();
+	    } catch (IOException e) {
+		chybaZapisu(e);
+	    }
 	}
     }
 
@@ -74,7 +146,7 @@ public class DataParser {
     /**
      * Getr varianty.
      * 
-     * @return cislo z intervalu <1, 4> informujici o variante grafu
+     * @return cislo z intervalu <1, 15> informujici o variante grafu
      */
     public int getVarianta() {
 	return this.varianta;
@@ -90,20 +162,71 @@ public class DataParser {
     }
 
     /**
-     * Getr LinkedListu hran.
+     * Getr docasneho souboru s hranami. Soubor maji jen varianty s hranami
+     * na disku (8, 10, 11), jejich pole hran je prazdne.
+     * 
+     * @return soubor dvojic cisel vrcholu, nebo <code>null</code> pokud jsou
+     *         hrany v poli hran
+     */
+    public File getSouborHran() {
+	return this.souborHran;
+    }
+
+    /**
+     * Getr pole hran. Platnych je prvnich <code>2 * getPocetHran()</code>
+     * prvku. U variant s hranami na disku viz {@link #getSouborHran()}.
      * 
-     * @return LinkedList hran
+     * @return pole dvojic cisel vrcholu
      */
-    public LinkedList<String> getHrany() {
+    public int[] getHrany() {
 	return this.hrany;
     }
 
     /**
-     * Getr LinkedListu vrcholů.
+     * Getr poctu hran.
+     * 
+     * @return pocet hran
+     */
+    public int getPocetHran() {
+	return this.pocetHran;
+    }
+
+    /**
+     * Getr pole vah hran. Hrana <code>i</code> ma vahu <code>vahy[i]</code>,
+     * platnych je prvnich <code>getPocetHran()</code> prvku.
+     * 
+     * @return pole vah hran, nebo <code>null</code> pokud zadna hrana nema
+     *         zadanou vahu a vsechny tak maji vahu 1
+     */
+    public int[] getVahy() {
+	return this.vahy;
+    }
+
+    /**
+     * Getr pole odebiranych hran. Platnych je prvnich
+     * <code>2 * getPocetOdebranych()</code> prvku.
+     * 
+     * @return pole dvojic cisel vrcholu
+     */
+    public int[] getOdebrane() {
+	return this.odebrane;
+    }
+
+    /**
+     * Getr poctu odebiranych hran.
+     * 
+     * @return pocet odebiranych hran
+     */
+    public int getPocetOdebranych() {
+	return this.pocetOdebranych;
+    }
+
+    /**
+     * Getr slovniku vrcholů.
      * 
-     * @return LinkedList vrcholů
+     * @return slovnik klicu vrcholu
      */
-    public LinkedList<String> getVrcholy() {
+    public SlovnikVrcholu getVrcholy() {
 	return this.vrcholy;
     }
 
@@ -118,28 +241,87 @@ public class DataParser {
      *            index praveho vrcholu urceneho k prohozeni
      * @return pole, ktere ma dva prvky prohozene oproti poli vstupujicimu
      */
-    private String[] swap(String[] pole, int left, int right) {
-	String tmp = pole[right];
+    private int[] swap(int[] pole, int left, int right) {
+	int tmp = pole[right];
 	pole[right] = pole[left];
 	pole[left] = tmp;
 	return pole;
     }
 
     /**
-     * Prida dva vrcholy do LinkedListu najednou. Pridava je pouze za
-     * predpokladu, že LinkedList tyto vrcholy neobsahuje.
+     * Prida dva vrcholy do slovniku najednou. Pridava je pouze za
+     * predpokladu, že slovnik tyto vrcholy neobsahuje.
      * 
      * @param vrchol_1
-     *            prvni vrchol pro pridani do LinkedListu vrcholy
+     *            prvni vrchol pro pridani do slovniku vrcholy
      * @param vrchol_2
-     *            druhy vrchol pro pridani do LinkedListu vrcholy
+     *            druhy vrchol pro pridani do slovniku vrcholy
+     * @return pole s cisly obou vrcholu
      */
-    private void vrchol(String vrchol_1, String vrchol_2) {
-	if (!vrcholy.contains(vrchol_1)) {
-	    vrcholy.add(vrchol_1);
+    private int[] vrchol(String vrchol_1, String vrchol_2) {
+	return new int[] { vrcholy.pridej(vrchol_1), vrcholy.pridej(vrchol_2) };
+    }
+
+    /**
+     * Prida hranu na konec pole hran.
+     * 
+     * @param start
+     *            cislo vrcholu, ze ktereho hrana vychazi
+     * @param end
+     *            cislo vrcholu, do ktereho hrana prichazi
+     * @param vaha
+     *            vaha hrany
+     */
+    private void hrana(int start, int end, int vaha) {
+	if (zapisHran != null) {
+	    try {
+		zapisHran.writeInt(start);
+		zapisHran.writeInt(end);
+	    } catch (IOException e) {
+		chybaZapisu(e);
+	    }
+	    pocetHran++;
+	    return;
+	}
+	if (2 * pocetHran + 2 > hrany.length) {
+	    hrany = Arrays.copyOf(hrany, hrany.length * 2);
+	    if (vahy != null) {
+		vahy = Arrays.copyOf(vahy, hrany.length / 2);
+	    }
 	}
-	if (!vrcholy.contains(vrchol_2)) {
-	    vrcholy.add(vrchol_2);
+	hrany[2 * pocetHran] = start;
+	hrany[2 * pocetHran + 1] = end;
+	if (vahy != null) {
+	    vahy[pocetHran] = vaha;
 	}
+	pocetHran++;
+    }
+
+    /**
+     * Prida hranu na konec pole odebiranych hran.
+     * 
+     * @param start
+     *            cislo vrcholu, ze ktereho hrana vychazi
+     * @param end
+     *            cislo vrcholu, do ktereho hrana prichazi
+     */
+    private void odeber(int start, int end) {
+	if (2 * pocetOdebranych + 2 > odebrane.length) {
+	    odebrane = Arrays.copyOf(odebrane, Math.max(16, odebrane.length * 2));
+	}
+	odebrane[2 * pocetOdebranych] = start;
+	odebrane[2 * pocetOdebranych + 1] = end;
+	pocetOdebranych++;
+    }
+
+    /**
+     * Ohlasi chybu zapisu docasneho souboru s hranami a ukonci program.
+     * 
+     * @param e
+     *            vyjimka zapisu
+     */
+    private void chybaZapisu(IOException e) {
+	System.out.println("\nDocasny soubor hran se nepodarilo zapsat: " + e.getMessage());
+	System.exit(1);
     }
 }
\ No newline at end of file
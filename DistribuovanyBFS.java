@@ -0,0 +1,308 @@
+package semestralka;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Distribuovane prohledavani grafu (orientovaneho i neorientovaneho) do
+ * sirky (BFS) pomoci nekolika pracovnich procesu na tomtez stroji.
+ * 
+ * Koordinator rozdeli cisla vrcholu (prirazena v poradi, v jakem je nacetl
+ * dataParser) na souvisle useky a pro kazdy usek spusti samostatny JVM
+ * {@link PracovniProces}. Hrany zapise dataParser uz pri nacitani do
+ * docasneho souboru. Koordinator je jednim pruchodem rozdeli podle vlastnika
+ * vrcholu, ze ktereho hrana vychazi, do samostatneho souboru pro kazdy
+ * proces, a kazdy proces si z nej sestavi jen seznamy sousednosti svych
+ * vrcholu. Vsechny hrany tak nejsou v pameti zadneho procesu najednou.
+ * Prohledavani probiha po urovnich: koordinator rozesle
+ * kandidaty jejich vlastnikum, procesy vrati nove navstivene vrcholy a jejich
+ * sousedy a koordinator sousedy roztridi podle vlastniku pro dalsi uroven.
+ * Vsechny davky se prenaseji pres lokalni sockety jako {@link BalikId}.
+ * 
+ * Pocet procesu se nastavuje systemovou vlastnosti <code>procesy</code>
+ * (vychozi hodnota 2), napr. <code>java -Dprocesy=4 semestralka.Main</code>.
+ * V ramci jedne urovne se vrcholy vypisuji v poradi, v jakem byly nacteny
+ * ze vstupu.
+ * 
+ * @author Martin Zlamal
+ */
+public class DistribuovanyBFS {
+    /** Vychozi pocet pracovnich procesu. */
+    private static final int PROCESY = 2;
+    /** Jak dlouho se ceka na pripojeni pracovnich procesu (ms). */
+    private static final int CEKANI = 30000;
+
+    /**
+     * Inicializacni metoda zajistujici rozdeleni grafu, spusteni pracovnich
+     * procesu a rizeni prohledavani.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu a startovnim vrcholu
+     */
+    public void init(DataParser dataParser) {
+	SlovnikVrcholu klice = dataParser.getVrcholy();
+	boolean addOriEdge = dataParser.getAddOriEdge();
+	String start = dataParser.getStart();
+
+	int pocetVrcholu = klice.getPocet();
+	int pozice = klice.najdi(start);
+	if (pozice == -1) {
+	    System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
+	    System.exit(1);
+	}
+
+	int procesu = Math.max(1, Math.min(Integer.getInteger("procesy", PROCESY), Math.max(1, pocetVrcholu)));
+	int[] hranice = new int[procesu + 1];
+	for (int index = 0; index <= procesu; index++) {
+	    hranice[index] = (int) ((long) pocetVrcholu * index / procesu);
+	}
+
+	PrintWriter file = null;
+	try {
+	    file = new PrintWriter(new FileWriter("vystup.txt"));
+	} catch (IOException e) {
+	    e.printStackTrace();
+	}
+	Process[] procesy = new Process[procesu];
+	ServerSocket server = null;
+	Socket[] sockety = new Socket[procesu];
+	File adresar = null;
+	try {
+	    adresar = File.createTempFile("casti", "");
+	    adresar.delete();
+	    adresar.mkdir();
+	    rozdel(dataParser, hranice, adresar);
+
+	    server = new ServerSocket(0, procesu, InetAddress.getLoopbackAddress());
+	    server.setSoTimeout(CEKANI);
+	    String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+	    for (int index = 0; index < procesu; index++) {
+		ProcessBuilder pb = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+			PracovniProces.class.getName(), "" + server.getLocalPort(), "" + index);
+		procesy[index] = pb.inheritIO().start();
+	    }
+	    DataInputStream[] in = new DataInputStream[procesu];
+	    DataOutputStream[] out = new DataOutputStream[procesu];
+	    for (int index = 0; index < procesu; index++) {
+		Socket socket = server.accept();
+		socket.setTcpNoDelay(true);
+		DataInputStream tmpIn = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		int cislo = tmpIn.readInt();
+		sockety[cislo] = socket;
+		in[cislo] = tmpIn;
+		out[cislo] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+	    }
+
+	    for (int index = 0; index < procesu; index++) {
+		out[index].writeInt(hranice[index]);
+		out[index].writeInt(hranice[index + 1]);
+		out[index].writeUTF(new File(adresar, "cast" + index + ".bin").getPath());
+		out[index].flush();
+	    }
+
+	    BalikId[] kandidati = new BalikId[procesu];
+	    for (int index = 0; index < procesu; index++) {
+		kandidati[index] = new BalikId();
+	    }
+	    kandidati[vlastnik(hranice, pozice)].pridej(pozice);
+	    StringBuilder urovne = new StringBuilder();
+	    long celkem = 0;
+	    boolean prvni = true;
+	    System.out.print("\nBFS(" + start + "): ");
+	    file.print("BFS(" + start + "): ");
+	    for (int uroven = 0;; uroven++) {
+		long odeslano = 0;
+		long prijato = 0;
+		long surove = 0;
+		int pocetKandidatu = 0;
+		for (int index = 0; index < procesu; index++) {
+		    out[index].writeInt(PracovniProces.UROVEN);
+		    odeslano += 4 + kandidati[index].zapis(out[index]);
+		    pocetKandidatu += kandidati[index].getPocet();
+		    surove += 4L * kandidati[index].getPocet();
+		    out[index].flush();
+		}
+		BalikId[] dalsi = new BalikId[procesu];
+		for (int index = 0; index < procesu; index++) {
+		    dalsi[index] = new BalikId();
+		}
+		int novych = 0;
+		for (int index = 0; index < procesu; index++) {
+		    BalikId nove = BalikId.cti(in[index]);
+		    BalikId sousedni = BalikId.cti(in[index]);
+		    prijato += nove.getBajtu() + sousedni.getBajtu();
+		    surove += 4L * (nove.getPocet() + sousedni.getPocet());
+		    novych += nove.getPocet();
+		    for (int j = 0; j < nove.getPocet(); j++) {
+			String klic = klice.getKlic(nove.get(j)) + " ";
+			if (!prvni) {
+			    klic = ", " + klic;
+			}
+			prvni = false;
+			System.out.print(klic);
+			file.print(klic);
+		    }
+		    for (int j = 0; j < sousedni.getPocet(); j++) {
+			dalsi[vlastnik(hranice, sousedni.get(j))].pridej(sousedni.get(j));
+		    }
+		}
+		celkem += odeslano + prijato;
+		urovne.append("\n  uroven " + uroven + ": kandidatu " + pocetKandidatu + ", novych " + novych
+			+ ", odeslano " + odeslano + " B, prijato " + prijato + " B (bez komprese "
+			+ surove + " B)");
+		if (novych == 0) {
+		    break;
+		}
+		kandidati = dalsi;
+	    }
+	    System.out.println();
+	    file.println();
+	    for (int index = 0; index < procesu; index++) {
+		out[index].writeInt(PracovniProces.KONEC);
+		out[index].flush();
+	    }
+	    for (int index = 0; index < procesu; index++) {
+		procesy[index].waitFor();
+	    }
+	    System.out.println("Procesu: " + procesu + ", komunikace celkem " + celkem + " B" + urovne);
+	} catch (IOException e) {
+	    e.printStackTrace();
+	} catch (InterruptedException e) {
+	    e.printStackTrace();
+	} finally {
+	    for (int index = 0; index < procesu; index++) {
+		if (sockety[index] != null) {
+		    try {
+			sockety[index].close();
+		    } catch (IOException e) {
+			e.printStackTrace();
+		    }
+		}
+		if (procesy[index] != null) {
+		    procesy[index].destroy();
+		}
+	    }
+	    if (server != null) {
+		try {
+		    server.close();
+		} catch (IOException e) {
+		    e.printStackTrace();
+		}
+	    }
+	    file.close();
+	    uklid(dataParser, adresar);
+	}
+    }
+
+    /**
+     * Rozdeli hrany z docasneho souboru dataParseru podle vlastniku do
+     * souboru <code>cast0.bin</code>, <code>cast1.bin</code>, ... v danem
+     * adresari. Hrana jde do souboru procesu, ktery vlastni vrchol, ze ktereho
+     * vychazi, neorientovana hrana jde do souboru obou vlastniku. Soubory
+     * obsahuji dvojice cisel <code>int</code> (vrchol, soused).
+     * 
+     * @param dataParser
+     *            objekt dataParseru s docasnym souborem hran
+     * @param hranice
+     *            zacatky useku jednotlivych procesu, posledni prvek je pocet
+     *            vrcholu
+     * @param adresar
+     *            adresar pro soubory jednotlivych procesu
+     * @throws IOException
+     *             pokud se hrany nepodari precist nebo zapsat
+     */
+    private static void rozdel(DataParser dataParser, int[] hranice, File adresar) throws IOException {
+	boolean addOriEdge = dataParser.getAddOriEdge();
+	DataOutputStream[] casti = new DataOutputStream[hranice.length - 1];
+	DataInputStream in = null;
+	try {
+	    for (int index = 0; index < casti.length; index++) {
+		casti[index] = new DataOutputStream(new BufferedOutputStream(
+			new FileOutputStream(new File(adresar, "cast" + index + ".bin")), 1 << 16));
+	    }
+	    in = new DataInputStream(new BufferedInputStream(new FileInputStream(dataParser.getSouborHran()), 1 << 16));
+	    for (int index = 0; index < dataParser.getPocetHran(); index++) {
+		int u = in.readInt();
+		int v = in.readInt();
+		DataOutputStream cast = casti[vlastnik(hranice, u)];
+		cast.writeInt(u);
+		cast.writeInt(v);
+		if (!addOriEdge) {
+		    cast = casti[vlastnik(hranice, v)];
+		    cast.writeInt(v);
+		    cast.writeInt(u);
+		}
+	    }
+	} finally {
+	    if (in != null) {
+		in.close();
+	    }
+	    for (int index = 0; index < casti.length; index++) {
+		if (casti[index] != null) {
+		    casti[index].close();
+		}
+	    }
+	}
+	dataParser.getSouborHran().delete();
+    }
+
+    /**
+     * Smaze docasne soubory: soubor hran dataParseru a adresar se soubory
+     * jednotlivych procesu.
+     * 
+     * @param dataParser
+     *            objekt dataParseru s docasnym souborem hran
+     * @param adresar
+     *            adresar se soubory procesu, nebo <code>null</code>
+     */
+    private static void uklid(DataParser dataParser, File adresar) {
+	if (dataParser.getSouborHran() != null) {
+	    dataParser.getSouborHran().delete();
+	}
+	if (adresar != null) {
+	    File[] soubory = adresar.listFiles();
+	    if (soubory != null) {
+		for (File tmp : soubory) {
+		    tmp.delete();
+		}
+	    }
+	    adresar.delete();
+	}
+    }
+
+    /**
+     * Najde pracovni proces, ktery vlastni dany vrchol.
+     * 
+     * @param hranice
+     *            zacatky useku jednotlivych procesu, posledni prvek je pocet
+     *            vrcholu
+     * @param vrchol
+     *            cislo vrcholu
+     * @return cislo pracovniho procesu
+     */
+    private static int vlastnik(int[] hranice, int vrchol) {
+	int lo = 0;
+	int hi = hranice.length - 2;
+	while (lo < hi) {
+	    int stred = (lo + hi + 1) >>> 1;
+	    if (hranice[stred] <= vrchol) {
+		lo = stred;
+	    } else {
+		hi = stred - 1;
+	    }
+	}
+	return lo;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,469 @@
+package semestralka;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Semi-externi prohledavani grafu (orientovaneho i neorientovaneho) do sirky
+ * (BFS) a do hloubky (DFS). V pameti jsou jen klice vrcholu, stavy vrcholu a
+ * zacatky seznamu sousedu. Samotne hrany jsou na disku v souboru serazenem
+ * podle vychoziho vrcholu a ctou se po velkych blocich pres
+ * <code>FileChannel</code> a blokovou cache.
+ * 
+ * Soubor hran se vytvori vnejsim tridenim: dataParser uz pri cteni vstupu
+ * zapisuje hrany do docasneho souboru, odtud se po behach dane velikosti
+ * ctou, seradi v pameti, zapisi do docasnych souboru a ty se pak slevaji do
+ * jednoho souboru. Hrany tak nikdy nejsou v pameti vsechny najednou. BFS
+ * zpracovava graf po urovnich a vrcholy kazde urovne seradi podle cisla,
+ * takze se bloky souboru ctou postupne od zacatku do konce. V ramci jedne
+ * urovne se proto vrcholy vypisuji v poradi, v jakem byly nacteny ze vstupu.
+ * DFS cte sousedy v poradi zasobniku.
+ * 
+ * Velikost behu trideni (v hranach), velikost bloku (v bajtech) a pocet bloku
+ * v cache se nastavuji systemovymi vlastnostmi <code>beh</code>,
+ * <code>blok</code> a <code>cache</code>.
+ * 
+ * @author Martin Zlamal
+ */
+public class ExterniGraf {
+    /** Vychozi pocet hran v jednom behu trideni. */
+    private static final int BEH = 1 << 20;
+    /** Vychozi velikost bloku v bajtech. */
+    private static final int BLOK = 1 << 20;
+    /** Vychozi pocet bloku v cache. */
+    private static final int CACHE = 64;
+
+    /** Slovnik klicu vrcholu. */
+    private SlovnikVrcholu klice;
+    /** Pocet vrcholu grafu. */
+    private int pocetVrcholu;
+    /** Zacatky seznamu sousedu v souboru hran (v poctu hran). */
+    private long[] zacatky;
+    /** Adresar s docasnymi soubory. */
+    private File adresar;
+    /** Soubor hran serazenych podle vychoziho vrcholu. */
+    private File soubor;
+    /** Sousede naposledy cteneho vrcholu. */
+    private int[] sousede = new int[16];
+
+    /** Privatni trida reprezentujici blokovou cache nad souborem hran. */
+    private class Cache {
+	/** Kanal souboru hran. */
+	private final FileChannel kanal;
+	/** Velikost bloku v bajtech, vzdy nasobek 4. */
+	private final int blok;
+	/** Bloky serazene od nejdele nepouziteho. */
+	private final LinkedHashMap<Long, ByteBuffer> bloky;
+	/** Pocet prectenych bajtu. */
+	private long precteno = 0;
+	/** Pocet cteni bloku z disku. */
+	private long cteni = 0;
+	/** Pocet pristupu k bloku, ktery uz byl v cache. */
+	private long zasahu = 0;
+
+	/**
+	 * Konstruktor cache.
+	 * 
+	 * @param kanal
+	 *            kanal souboru hran
+	 * @param blok
+	 *            velikost bloku v bajtech
+	 * @param pocet
+	 *            maximalni pocet bloku v cache
+	 */
+	public Cache(FileChannel kanal, int blok, final int pocet) {
+	    this.kanal = kanal;
+	    this.blok = blok;
+	    this.bloky = new LinkedHashMap<Long, ByteBuffer>(pocet * 2, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, ByteBuffer> nejstarsi) {
+		    return size() > pocet;
+		}
+	    };
+	}
+
+	/**
+	 * Vrati blok souboru, pripadne ho nacte z disku jednim velkym
+	 * sekvencnim ctenim.
+	 * 
+	 * @param cislo
+	 *            cislo bloku
+	 * @return obsah bloku
+	 * @throws IOException
+	 *             pri chybe cteni
+	 */
+	public ByteBuffer get(long cislo) throws IOException {
+	    ByteBuffer buffer = bloky.get(cislo);
+	    if (buffer != null) {
+		zasahu++;
+		return buffer;
+	    }
+	    buffer = ByteBuffer.allocate(blok);
+	    long pozice = cislo * blok;
+	    while (buffer.hasRemaining()) {
+		int n = kanal.read(buffer, pozice + buffer.position());
+		if (n < 0) {
+		    break;
+		}
+	    }
+	    precteno += buffer.position();
+	    cteni++;
+	    bloky.put(cislo, buffer);
+	    return buffer;
+	}
+    }
+
+    /**
+     * Vytvori soubor hran vnejsim tridenim hran z docasneho souboru
+     * dataParseru. Behy trideni smaze i pri chybe.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu
+     * @throws IOException
+     *             pri chybe zapisu docasnych souboru
+     */
+    private void nacti(DataParser dataParser) throws IOException {
+	boolean addOriEdge = dataParser.getAddOriEdge();
+
+	klice = dataParser.getVrcholy();
+	pocetVrcholu = klice.getPocet();
+
+	adresar = File.createTempFile("hrany", "");
+	adresar.delete();
+	adresar.mkdir();
+	ArrayList<File> behy = new ArrayList<File>();
+	DataInputStream[] in = new DataInputStream[0];
+	DataOutputStream out = null;
+	try {
+	    long[] beh = new long[Math.max(2, Integer.getInteger("beh", BEH))];
+	    int pocet = 0;
+	    DataInputStream vstup = new DataInputStream(
+		    new BufferedInputStream(new FileInputStream(dataParser.getSouborHran()), 1 << 16));
+	    try {
+		for (int index = 0; index < dataParser.getPocetHran(); index++) {
+		    long u = vstup.readInt();
+		    long v = vstup.readInt();
+		    beh[pocet++] = u << 32 | v;
+		    if (!addOriEdge) {
+			beh[pocet++] = v << 32 | u;
+		    }
+		    if (pocet >= beh.length - 1 || index == dataParser.getPocetHran() - 1) {
+			behy.add(zapisBeh(beh, pocet, behy.size()));
+			pocet = 0;
+		    }
+		}
+	    } finally {
+		vstup.close();
+		dataParser.getSouborHran().delete();
+	    }
+	    beh = null;
+
+	    zacatky = new long[pocetVrcholu + 1];
+	    soubor = new File(adresar, "hrany.bin");
+	    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(soubor), 1 << 16));
+	    in = new DataInputStream[behy.size()];
+	    slej(behy, in, out);
+	} finally {
+	    for (DataInputStream tmp : in) {
+		if (tmp != null) {
+		    tmp.close();
+		}
+	    }
+	    if (out != null) {
+		out.close();
+	    }
+	    for (File tmp : behy) {
+		tmp.delete();
+	    }
+	}
+	for (int index = 0; index < pocetVrcholu; index++) {
+	    zacatky[index + 1] += zacatky[index];
+	}
+	System.out.println("\nSoubor hran: " + dataParser.getPocetHran() + " hran, " + behy.size()
+		+ " behu trideni, " + VyberReprezentace.velikost(soubor.length()));
+    }
+
+    /**
+     * Slije serazene behy do souboru hran a spocita pocty sousedu vrcholu
+     * do pole <code>zacatky</code> (posunute o jedna).
+     * 
+     * @param behy
+     *            soubory behu
+     * @param in
+     *            pole pro vstupni proudy behu, zaviraji se az po chybe nebo
+     *            dokonceni
+     * @param out
+     *            vystupni proud souboru hran
+     * @throws IOException
+     *             pri chybe cteni nebo zapisu
+     */
+    private void slej(ArrayList<File> behy, DataInputStream[] in, DataOutputStream out) throws IOException {
+	PriorityQueue<long[]> halda = new PriorityQueue<long[]>(Math.max(1, behy.size()),
+		new Comparator<long[]>() {
+		    @Override
+		    public int compare(long[] a, long[] b) {
+			return Long.compare(a[0], b[0]);
+		    }
+		});
+	for (int index = 0; index < in.length; index++) {
+	    in[index] = new DataInputStream(new BufferedInputStream(new FileInputStream(behy.get(index)), 1 << 16));
+	    halda.add(new long[] { in[index].readLong(), index });
+	}
+	while (!halda.isEmpty()) {
+	    long[] prvni = halda.poll();
+	    zacatky[(int) (prvni[0] >>> 32) + 1]++;
+	    out.writeInt((int) prvni[0]);
+	    try {
+		prvni[0] = in[(int) prvni[1]].readLong();
+		halda.add(prvni);
+	    } catch (EOFException e) {
+		in[(int) prvni[1]].close();
+		in[(int) prvni[1]] = null;
+		behy.get((int) prvni[1]).delete();
+	    }
+	}
+    }
+
+    /**
+     * Seradi jeden beh hran a zapise ho do docasneho souboru.
+     * 
+     * @param beh
+     *            hrany zakodovane jako <code>start &lt;&lt; 32 | konec</code>
+     * @param pocet
+     *            pocet platnych hran v poli
+     * @param cislo
+     *            poradove cislo behu
+     * @return docasny soubor
+     * @throws IOException
+     *             pri chybe zapisu
+     */
+    private File zapisBeh(long[] beh, int pocet, int cislo) throws IOException {
+	Arrays.sort(beh, 0, pocet);
+	File tmp = new File(adresar, "beh" + cislo + ".bin");
+	DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16));
+	try {
+	    for (int index = 0; index < pocet; index++) {
+		out.writeLong(beh[index]);
+	    }
+	} finally {
+	    out.close();
+	}
+	return tmp;
+    }
+
+    /**
+     * Nacte sousedy vrcholu do pole <code>sousede</code>.
+     * 
+     * @param cache
+     *            bloková cache nad souborem hran
+     * @param vrchol
+     *            cislo vrcholu
+     * @return pocet sousedu
+     * @throws IOException
+     *             pri chybe cteni
+     */
+    private int nactiSousedy(Cache cache, int vrchol) throws IOException {
+	int pocet = (int) (zacatky[vrchol + 1] - zacatky[vrchol]);
+	if (pocet > sousede.length) {
+	    sousede = new int[Math.max(pocet, sousede.length * 2)];
+	}
+	long pozice = zacatky[vrchol] * 4;
+	long konec = zacatky[vrchol + 1] * 4;
+	int index = 0;
+	while (pozice < konec) {
+	    long cislo = pozice / cache.blok;
+	    ByteBuffer buffer = cache.get(cislo);
+	    long zacatekBloku = cislo * cache.blok;
+	    long konecBloku = Math.min(konec, zacatekBloku + cache.blok);
+	    for (; pozice < konecBloku; pozice += 4) {
+		sousede[index++] = buffer.getInt((int) (pozice - zacatekBloku));
+	    }
+	}
+	return pocet;
+    }
+
+    /**
+     * Prohledavani do sirky po urovnich. Vrcholy kazde urovne se zpracuji
+     * serazene podle cisla, tedy i podle pozice v souboru hran.
+     * 
+     * @param cache
+     *            bloková cache nad souborem hran
+     * @param start
+     *            cislo startovniho vrcholu
+     * @param file
+     *            <code>PrintWriter</code> pro tisknuti do souboru
+     * @throws IOException
+     *             pri chybe cteni
+     */
+    private void BFS(Cache cache, int start, PrintWriter file) throws IOException {
+	boolean[] navstivene = new boolean[pocetVrcholu];
+	int[] fronta = new int[pocetVrcholu];
+	int[] dalsi = new int[pocetVrcholu];
+	int velikost = 1;
+	fronta[0] = start;
+	navstivene[start] = true;
+	boolean prvni = true;
+	while (velikost > 0) {
+	    Arrays.sort(fronta, 0, velikost);
+	    int novych = 0;
+	    for (int index = 0; index < velikost; index++) {
+		int tmp = fronta[index];
+		int pocet = nactiSousedy(cache, tmp);
+		for (int j = 0; j < pocet; j++) {
+		    if (!navstivene[sousede[j]]) {
+			navstivene[sousede[j]] = true;
+			dalsi[novych++] = sousede[j];
+		    }
+		}
+		String klic = klice.getKlic(tmp) + " ";
+		if (!prvni) {
+		    klic = ", " + klic;
+		}
+		prvni = false;
+		System.out.print(klic);
+		file.print(klic);
+	    }
+	    int[] vymena = fronta;
+	    fronta = dalsi;
+	    dalsi = vymena;
+	    velikost = novych;
+	}
+	System.out.println();
+	file.println();
+    }
+
+    /**
+     * Prohledavani do hloubky se zasobnikem stejne jako u seznamu
+     * sousednosti, jen sousedy cte ze souboru hran.
+     * 
+     * @param cache
+     *            bloková cache nad souborem hran
+     * @param start
+     *            cislo startovniho vrcholu
+     * @param file
+     *            <code>PrintWriter</code> pro tisknuti do souboru
+     * @throws IOException
+     *             pri chybe cteni
+     */
+    private void DFS(Cache cache, int start, PrintWriter file) throws IOException {
+	boolean[] navstivene = new boolean[pocetVrcholu];
+	int[] zasobnik = new int[pocetVrcholu];
+	int vrch = 0;
+	zasobnik[vrch++] = start;
+	navstivene[start] = true;
+	while (vrch > 0) {
+	    int tmp = zasobnik[--vrch];
+	    int pocet = nactiSousedy(cache, tmp);
+	    for (int j = 0; j < pocet; j++) {
+		if (!navstivene[sousede[j]]) {
+		    navstivene[sousede[j]] = true;
+		    zasobnik[vrch++] = sousede[j];
+		}
+	    }
+	    if (vrch > 0) {
+		System.out.print(klice.getKlic(tmp) + " , ");
+		file.print(klice.getKlic(tmp) + " , ");
+	    } else {
+		System.out.println(klice.getKlic(tmp) + " ");
+		file.println(klice.getKlic(tmp) + " ");
+	    }
+	}
+    }
+
+    /**
+     * Inicializacni metoda zajistujici vytvoreni souboru hran, prohledavani a
+     * vypis poctu prectenych bajtu.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu, variante a startovnim vrcholu
+     */
+    public void init(DataParser dataParser) {
+	int varianta = dataParser.getVarianta();
+	String start = dataParser.getStart();
+	PrintWriter file = null;
+	RandomAccessFile raf = null;
+	try {
+	    nacti(dataParser);
+	    int pozice = klice.najdi(start);
+	    if (pozice == -1) {
+		System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
+		uklid(dataParser);
+		System.exit(1);
+	    }
+	    file = new PrintWriter(new FileWriter("vystup.txt"));
+	    raf = new RandomAccessFile(soubor, "r");
+	    int blok = Math.max(4, Integer.getInteger("blok", BLOK) & ~3);
+	    Cache cache = new Cache(raf.getChannel(), blok, Math.max(1, Integer.getInteger("cache", CACHE)));
+	    if (varianta == 10) {
+		System.out.print("\nBFS(" + start + "): ");
+		file.print("BFS(" + start + "): ");
+		BFS(cache, pozice, file);
+	    } else if (varianta == 11) {
+		System.out.print("\nDFS(" + start + "): ");
+		file.print("DFS(" + start + "): ");
+		DFS(cache, pozice, file);
+	    }
+	    System.out.println("Precteno " + cache.precteno + " B (" + VyberReprezentace.velikost(cache.precteno)
+		    + ") v " + cache.cteni + " ctenich bloku po " + VyberReprezentace.velikost(blok)
+		    + ", zasahu cache " + cache.zasahu);
+	} catch (IOException e) {
+	    e.printStackTrace();
+	} finally {
+	    if (raf != null) {
+		try {
+		    raf.close();
+		} catch (IOException e) {
+		    e.printStackTrace();
+		}
+	    }
+	    if (file != null) {
+		file.close();
+	    }
+	    uklid(dataParser);
+	}
+    }
+
+    /**
+     * Smaze docasne soubory: soubor hran dataParseru a adresar se souborem
+     * hran a pripadnymi behy trideni.
+     * 
+     * @param dataParser
+     *            objekt dataParseru s docasnym souborem hran
+     */
+    private void uklid(DataParser dataParser) {
+	if (dataParser.getSouborHran() != null) {
+	    dataParser.getSouborHran().delete();
+	}
+	if (adresar != null) {
+	    File[] soubory = adresar.listFiles();
+	    if (soubory != null) {
+		for (File tmp : soubory) {
+		    tmp.delete();
+		}
+	    }
+	    adresar.delete();
+	}
+    }
+}
\ No newline at end of file
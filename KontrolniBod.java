@@ -0,0 +1,411 @@
+package semestralka;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Kontrolni body dlouheho prohledavani do sirky (BFS) a do hloubky (DFS).
+ * Zapinaji se systemovou vlastnosti <code>kontrola</code>, jejiz hodnota je
+ * pocet zpracovanych vrcholu mezi dvema kontrolnimi body, napr.
+ * <code>java -Dkontrola=100000 semestralka.Main</code>. Bez hodnoty
+ * (<code>-Dkontrola</code>) je interval {@value #INTERVAL} vrcholu, u grafu
+ * s vice nez 64 * {@value #INTERVAL} vrcholy pocet vrcholu / 64. Bez teto
+ * vlastnosti se kontrolni body nezapisuji ani nenacitaji. Ulozi se mnozina
+ * navstivenych vrcholu, obsah fronty (zasobniku) s hloubkami vrcholu,
+ * aktualni uroven, pocet bajtu zapsanych do souboru <code>vystup.txt</code>
+ * a jejich CRC-32.
+ * 
+ * Mnozinu navstivenych vrcholu vede stav prohledavani prubezne jako bitove
+ * pole, takze se prohledavani zastavi jen na zkopirovani tohoto pole a
+ * fronty. Diky intervalu rostoucimu s poctem vrcholu je celkova doba
+ * kopirovani umerna velikosti grafu. Komprimaci a zapis obstarava
+ * samostatne vlakno, ktere nejdriv vynuti zapis vystupu na disk, pak zapise
+ * kontrolni bod do docasneho souboru a ten atomicky prejmenuje, takze na
+ * disku je vzdy cely predchozi nebo cely novy kontrolni bod. Pokud predchozi
+ * zapis jeste nedobehl, kontrolni bod se vynecha.
+ * 
+ * Pri dalsim spusteni nad stejnym grafem, variantou a startem se overi, ze
+ * soubor <code>vystup.txt</code> zacina ulozenym poctem bajtu se stejnym
+ * CRC-32. Pak se zkrati na ulozenou delku, tim se zahodi pripadny nedopsany
+ * konec, a prohledavani pokracuje z ulozeneho stavu. Vystup je pak stejny
+ * jako u prohledavani bez preruseni. Po dokonceni prohledavani se kontrolni
+ * bod smaze, ale jen pokud z nej tento beh pokracoval nebo ho sam zapsal.
+ * 
+ * @author Martin Zlamal
+ */
+class KontrolniBod {
+    /** Soubor s vystupem prohledavani. */
+    static final String VYSTUP = "vystup.txt";
+    /** Soubor s kontrolnim bodem. */
+    static final String SOUBOR = "vystup.kb";
+    /** Nejmensi vychozi pocet zpracovanych vrcholu mezi kontrolnimi body. */
+    private static final int INTERVAL = 1 << 16;
+    /** Znacka na zacatku souboru kontrolniho bodu. */
+    private static final int ZNACKA = 0x4B424F44;
+
+    /** <code>true</code> pokud jsou kontrolni body zapnute. */
+    private final boolean zapnuto;
+    /** Otisk grafu, varianty a startu, ke kteremu kontrolni bod patri. */
+    private final long otisk;
+    /** Pocet zpracovanych vrcholu mezi dvema kontrolnimi body. */
+    private final long interval;
+    /** Soubor s kontrolnim bodem. */
+    private final File soubor = new File(SOUBOR);
+    /** Nacteny kontrolni bod, ze ktereho se pokracuje, nebo null. */
+    private Snimek obnoveny;
+    /** Proud souboru s vystupem. */
+    private FileOutputStream proud;
+    /** Zapisovac souboru s vystupem. */
+    private PrintWriter file;
+    /** Pocet zpracovanych vrcholu. */
+    private long zpracovano = 0;
+    /** Vlakno zapisujici posledni kontrolni bod. */
+    private Thread zapisovac;
+    /** Kontrolni soucet vsech bajtu zapsanych do souboru s vystupem. */
+    private final CRC32 crc = new CRC32();
+    /**
+     * <code>true</code> pokud soubor kontrolniho bodu patri tomuto behu, tj.
+     * byl z nej obnoven nebo ho tento beh zapsal. Jen takovy se na konci
+     * smaze.
+     */
+    private volatile boolean vlastni = false;
+
+    /**
+     * Privatni trida reprezentujici kopii stavu prohledavani, ktera se
+     * zapisuje do souboru.
+     */
+    private static class Snimek {
+	/** Pocet bajtu zapsanych do souboru s vystupem. */
+	private long delkaVystupu;
+	/** CRC-32 techto bajtu. */
+	private long crcVystupu;
+	/** Pocet zpracovanych vrcholu. */
+	private long zpracovano;
+	/** Hloubka naposledy zpracovaneho vrcholu. */
+	private int uroven;
+	/** <code>true</code> pro BFS, <code>false</code> pro DFS. */
+	private boolean doSirky;
+	/** Bitova mnozina navstivenych vrcholu. */
+	private long[] navstivene;
+	/** Obsah fronty (zasobniku). */
+	private int[] fronta;
+	/** Hloubky vrcholu fronty (zasobniku). */
+	private int[] hloubky;
+    }
+
+    /**
+     * Konstruktor kontrolniho bodu. Pokud jsou kontrolni body zapnute a
+     * existuje kontrolni bod stejneho grafu, varianty a startu a soubor s
+     * vystupem zacina presne tim, co do nej zapsal preruseny beh (overi se
+     * CRC-32), nacte ho.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy, informace o
+     *            orientovani grafu a startovni vrchol
+     * @param varianta
+     *            konkretni varianta prohledavani
+     */
+    public KontrolniBod(DataParser dataParser, int varianta) {
+	this.zapnuto = System.getProperty("kontrola") != null;
+	this.otisk = zapnuto ? otisk(dataParser, varianta) : 0;
+	long vychozi = Math.max(INTERVAL, dataParser.getVrcholy().getPocet() / 64);
+	this.interval = Math.max(1, Long.getLong("kontrola", vychozi));
+	if (zapnuto && soubor.isFile()) {
+	    try {
+		obnoveny = cti();
+	    } catch (IOException e) {
+		obnoveny = null;
+	    }
+	    if (obnoveny == null) {
+		System.out.println("\nKontrolni bod " + SOUBOR + " nepatri k tomuto prohledavani, zacina se znovu.");
+	    } else if (!overVystup(obnoveny)) {
+		obnoveny = null;
+		crc.reset();
+		System.out.println("\nSoubor " + VYSTUP + " se od kontrolniho bodu zmenil, zacina se znovu.");
+	    } else {
+		vlastni = true;
+	    }
+	}
+    }
+
+    /**
+     * Otevre soubor s vystupem. Pri pokracovani z kontrolniho bodu soubor
+     * zkrati na ulozenou delku a dalsi vystup pripojuje na konec.
+     * 
+     * @return <code>PrintWriter</code> pro tisknuti do souboru
+     * @throws IOException
+     *             pri chybe souboru s vystupem
+     */
+    public PrintWriter otevriVystup() throws IOException {
+	if (obnoveny != null) {
+	    RandomAccessFile raf = new RandomAccessFile(VYSTUP, "rw");
+	    try {
+		raf.setLength(obnoveny.delkaVystupu);
+	    } finally {
+		raf.close();
+	    }
+	}
+	proud = new FileOutputStream(VYSTUP, obnoveny != null);
+	if (zapnuto) {
+	    file = new PrintWriter(new OutputStreamWriter(new CheckedOutputStream(proud, crc)));
+	} else {
+	    file = new PrintWriter(new OutputStreamWriter(proud));
+	}
+	return file;
+    }
+
+    /**
+     * Overi, ze soubor s vystupem zacina bajty, ze kterych byl spocitan
+     * kontrolni soucet v kontrolnim bodu. Soucet precteneho zacatku zustane
+     * v <code>crc</code> a pokracuje se v nem pri dalsim zapisu.
+     * 
+     * @param snimek
+     *            nacteny kontrolni bod
+     * @return <code>true</code> pokud se zacatek souboru shoduje
+     */
+    private boolean overVystup(Snimek snimek) {
+	File vystup = new File(VYSTUP);
+	if (vystup.length() < snimek.delkaVystupu) {
+	    return false;
+	}
+	try {
+	    FileInputStream in = new FileInputStream(vystup);
+	    try {
+		byte[] buffer = new byte[1 << 16];
+		long zbyva = snimek.delkaVystupu;
+		while (zbyva > 0) {
+		    int n = in.read(buffer, 0, (int) Math.min(buffer.length, zbyva));
+		    if (n < 0) {
+			return false;
+		    }
+		    crc.update(buffer, 0, n);
+		    zbyva -= n;
+		}
+	    } finally {
+		in.close();
+	    }
+	} catch (IOException e) {
+	    return false;
+	}
+	return crc.getValue() == snimek.crcVystupu;
+    }
+
+    /**
+     * Zjisti, zda se pokracuje z kontrolniho bodu.
+     * 
+     * @return <code>true</code> pokud byl nacten kontrolni bod
+     */
+    public boolean isObnoveno() {
+	return obnoveny != null;
+    }
+
+    /**
+     * Pripravi stav prohledavani. Pri pokracovani obnovi stav z kontrolniho
+     * bodu, jinak zacne nove prohledavani ze startu.
+     * 
+     * @param stav
+     *            stav prohledavani
+     * @param start
+     *            index startovniho vrcholu
+     * @param doSirky
+     *            <code>true</code> pro BFS, <code>false</code> pro DFS
+     */
+    public void zacni(StavProhledavani stav, int start, boolean doSirky) {
+	if (zapnuto) {
+	    stav.sledujNavstivene();
+	}
+	if (obnoveny == null) {
+	    stav.zacni(start, doSirky);
+	    return;
+	}
+	stav.obnov(doSirky, obnoveny.navstivene, obnoveny.fronta, obnoveny.hloubky);
+	zpracovano = obnoveny.zpracovano;
+	System.out.print("(pokracovani z kontrolniho bodu, uroven " + obnoveny.uroven + ", zpracovano "
+		+ zpracovano + " vrcholu) ");
+	obnoveny = null;
+    }
+
+    /**
+     * Zaznamena zpracovani vrcholu. Volat az po vypisu vrcholu. Po kazdych
+     * <code>interval</code> vrcholech zkopiruje stav prohledavani a preda ho
+     * k zapisu na pozadi.
+     * 
+     * @param stav
+     *            stav prohledavani
+     * @param vrchol
+     *            index prave zpracovaneho vrcholu
+     */
+    public void zpracovan(StavProhledavani stav, int vrchol) {
+	if (!zapnuto || ++zpracovano % interval != 0 || stav.isPrazdny()
+		|| (zapisovac != null && zapisovac.isAlive())) {
+	    return;
+	}
+	file.flush();
+	final Snimek snimek = new Snimek();
+	try {
+	    snimek.delkaVystupu = proud.getChannel().position();
+	} catch (IOException e) {
+	    return;
+	}
+	snimek.crcVystupu = crc.getValue();
+	snimek.zpracovano = zpracovano;
+	snimek.uroven = stav.getHloubka(vrchol);
+	snimek.doSirky = stav.isDoSirky();
+	snimek.navstivene = stav.getNavstivene();
+	snimek.fronta = stav.getFronta();
+	snimek.hloubky = stav.getHloubkyFronty();
+	zapisovac = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		try {
+		    proud.getChannel().force(false);
+		    zapis(snimek);
+		    vlastni = true;
+		} catch (IOException e) {
+		    System.err.println("\nKontrolni bod se nepodarilo zapsat: " + e.getMessage());
+		}
+	    }
+	}, "kontrolni-bod");
+	zapisovac.setDaemon(true);
+	zapisovac.start();
+    }
+
+    /**
+     * Ukonci prohledavani. Pocka na rozepsany kontrolni bod, zavre soubor s
+     * vystupem a smaze kontrolni bod, pokud patri tomuto behu. Kontrolni bod
+     * jineho prohledavani zustane.
+     */
+    public void dokonceno() {
+	if (zapisovac != null) {
+	    try {
+		zapisovac.join();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+	    }
+	}
+	if (file != null) {
+	    file.close();
+	}
+	if (vlastni) {
+	    soubor.delete();
+	}
+    }
+
+    /**
+     * Zapise kopii stavu do docasneho souboru a ten prejmenuje na soubor
+     * kontrolniho bodu.
+     * 
+     * @param snimek
+     *            kopie stavu prohledavani
+     * @throws IOException
+     *             pri chybe zapisu
+     */
+    private void zapis(Snimek snimek) throws IOException {
+	File docasny = new File(SOUBOR + ".tmp");
+	FileOutputStream fos = new FileOutputStream(docasny);
+	try {
+	    DataOutputStream hlavicka = new DataOutputStream(fos);
+	    hlavicka.writeInt(ZNACKA);
+	    hlavicka.writeLong(otisk);
+	    DeflaterOutputStream deflater = new DeflaterOutputStream(fos, new Deflater(Deflater.BEST_SPEED), 1 << 16);
+	    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(deflater, 1 << 16));
+	    out.writeLong(snimek.delkaVystupu);
+	    out.writeLong(snimek.crcVystupu);
+	    out.writeLong(snimek.zpracovano);
+	    out.writeInt(snimek.uroven);
+	    out.writeBoolean(snimek.doSirky);
+	    out.writeInt(snimek.navstivene.length);
+	    for (long slovo : snimek.navstivene) {
+		out.writeLong(slovo);
+	    }
+	    out.writeInt(snimek.fronta.length);
+	    for (int index = 0; index < snimek.fronta.length; index++) {
+		out.writeInt(snimek.fronta[index]);
+		out.writeInt(snimek.hloubky[index]);
+	    }
+	    out.flush();
+	    deflater.finish();
+	    fos.getFD().sync();
+	} finally {
+	    fos.close();
+	}
+	Files.move(docasny.toPath(), soubor.toPath(), StandardCopyOption.REPLACE_EXISTING,
+		StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Nacte kontrolni bod ze souboru.
+     * 
+     * @return kopie stavu prohledavani, nebo null pokud kontrolni bod patri
+     *         k jinemu grafu, variante nebo startu
+     * @throws IOException
+     *             pri chybe cteni nebo poskozenem souboru
+     */
+    private Snimek cti() throws IOException {
+	DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(soubor)));
+	try {
+	    if (in.readInt() != ZNACKA || in.readLong() != otisk) {
+		return null;
+	    }
+	    in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(in), 1 << 16));
+	    Snimek snimek = new Snimek();
+	    snimek.delkaVystupu = in.readLong();
+	    snimek.crcVystupu = in.readLong();
+	    snimek.zpracovano = in.readLong();
+	    snimek.uroven = in.readInt();
+	    snimek.doSirky = in.readBoolean();
+	    snimek.navstivene = new long[in.readInt()];
+	    for (int index = 0; index < snimek.navstivene.length; index++) {
+		snimek.navstivene[index] = in.readLong();
+	    }
+	    snimek.fronta = new int[in.readInt()];
+	    snimek.hloubky = new int[snimek.fronta.length];
+	    for (int index = 0; index < snimek.fronta.length; index++) {
+		snimek.fronta[index] = in.readInt();
+		snimek.hloubky[index] = in.readInt();
+	    }
+	    return snimek;
+	} finally {
+	    in.close();
+	}
+    }
+
+    /**
+     * Spocita otisk grafu, varianty a startu. Kontrolni bod jineho vstupu se
+     * tak nikdy nepouzije.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany a vrcholy
+     * @param varianta
+     *            konkretni varianta prohledavani
+     * @return 64bitovy otisk
+     */
+    private static long otisk(DataParser dataParser, int varianta) {
+	long h = 0xcbf29ce484222325L;
+	h = (h ^ varianta) * 0x100000001b3L;
+	h = (h ^ (dataParser.getAddOriEdge() ? 1 : 0)) * 0x100000001b3L;
+	h = (h ^ dataParser.getStart().hashCode()) * 0x100000001b3L;
+	h = (h ^ dataParser.getVrcholy().getPocet()) * 0x100000001b3L;
+	int[] hrany = dataParser.getHrany();
+	for (int index = 0; index < 2 * dataParser.getPocetHran(); index++) {
+	    h = (h ^ hrany[index]) * 0x100000001b3L;
+	}
+	return h;
+    }
+}
\ No newline at end of file
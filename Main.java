@@ -38,6 +38,17 @@ public class Main {
 	System.out.println("2) Prohledavani do hloubky seznamem sousednosti - SS_DFS");
 	System.out.println("3) Prohledavani do sirky matici sousednosti - MS_BFS");
 	System.out.println("4) Prohledavani do hloubky matici sousednosti - MS_DFS");
+	System.out.println("5) Prohledavani do sirky s automatickou volbou reprezentace - AUTO_BFS");
+	System.out.println("6) Prohledavani do hloubky s automatickou volbou reprezentace - AUTO_DFS");
+	System.out.println("7) Prohledavani do sirky linearni algebrou nad bitovou matici - LA_BFS");
+	System.out.println("8) Distribuovane prohledavani do sirky v nekolika procesech - DIST_BFS");
+	System.out.println("9) Soubezne dotazy nad jednim grafem - SOUBEZNE");
+	System.out.println("10) Prohledavani do sirky s hranami na disku - EXT_BFS");
+	System.out.println("11) Prohledavani do hloubky s hranami na disku - EXT_DFS");
+	System.out.println("12) Postupne prohledavani do sirky s omezenim hloubky, poctu a cilem - LINE_BFS");
+	System.out.println("13) Nejkratsi cesty z jednoho vrcholu v ohodnocenem grafu - SSSP");
+	System.out.println("14) Sestaveni ulozeneho grafu a prohledavani do sirky - ULOZ_BFS");
+	System.out.println("15) Prirustkove nacteni zmen do ulozeneho grafu a prohledavani do sirky - ZMENY_BFS");
 	System.out.print("Varianta: ");
 
 	DataParser dataParser = new DataParser(scan, soubor);
@@ -49,6 +60,7 @@ public class Main {
 	switch (varianta) {
 	case 1:
 	case 2:
+	case 12:
 	    SeznamSousednosti tmp1 = new SeznamSousednosti();
 	    tmp1.init(dataParser);
 	    break;
@@ -57,6 +69,38 @@ public class Main {
 	    MaticeSousednosti tmp2 = new MaticeSousednosti();
 	    tmp2.init(dataParser);
 	    break;
+	case 5:
+	case 6:
+	    VyberReprezentace tmp3 = new VyberReprezentace(dataParser);
+	    System.out.println("\n" + tmp3);
+	    tmp3.init(dataParser);
+	    break;
+	case 7:
+	    BitovaMatice tmp4 = new BitovaMatice();
+	    tmp4.init(dataParser);
+	    break;
+	case 8:
+	    DistribuovanyBFS tmp5 = new DistribuovanyBFS();
+	    tmp5.init(dataParser);
+	    break;
+	case 9:
+	    SoubezneDotazy tmp6 = new SoubezneDotazy();
+	    tmp6.init(dataParser);
+	    break;
+	case 10:
+	case 11:
+	    ExterniGraf tmp7 = new ExterniGraf();
+	    tmp7.init(dataParser);
+	    break;
+	case 13:
+	    NejkratsiCesty tmp8 = new NejkratsiCesty();
+	    tmp8.init(dataParser);
+	    break;
+	case 14:
+	case 15:
+	    PrirustkovyGraf tmp9 = new PrirustkovyGraf();
+	    tmp9.init(dataParser);
+	    break;
 	default:
 	    System.out.println("\nTuto variantu nemam naprogramovanou!");
 	}
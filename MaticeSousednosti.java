@@ -1,146 +1,55 @@
 package semestralka;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Stack;
 
 /**
  * Prohledavani grafu (orientovaneho i neorientovaneho) do hloubky (DFS) a do
- * sirky (BFS) pro jeho reprezentaci matici sousednosti.
+ * sirky (BFS) pro jeho reprezentaci matici sousednosti. Prerusene prohledavani
+ * pokracuje z posledniho kontrolniho bodu (viz {@link KontrolniBod}).
  * 
  * @author Martin Zlamal
  */
 public class MaticeSousednosti {
-    /** Hodnota jeste nenavstiveneho vrcholu. */
-    private final int FRESH = 0;
-    /** Hodnota vrcholu navstiveneho, ne vsak uzavreneho. */
-    private final int OPENED = 1;
-    /** Hodnota uzavreneho vrcholu. */
-    private final int CLOSED = 2;
 
-    /** Privatni trida reprezentujici vrchol. */
-    private class Vrchol {
-	/** Uchovava hodnotu klice, resp. hodnotu vrcholu. */
-	private final String klic;
-	/** Uchovava stav. FRESH=0, OPENED=1, CLOSED=2 */
-	private int stav;
-
-	/**
-	 * Konstruktor vrcholu zajistujici inicializaci klice a stavu vrcholu.
-	 * 
-	 * @param klic
-	 *            hodnota klice, resp. hodnota vrcholu
-	 * @param stav
-	 *            stav vrcholu, FRESH=0, OPENED=1, CLOSED=2
-	 */
-	public Vrchol(String klic, int stav) {
-	    this.klic = klic;
-	    this.stav = stav;
-	}
-
-	/**
-	 * Getr klice vrcholu.
-	 * 
-	 * @return hodnota klice
-	 */
-	public String getKlic() {
-	    return klic;
-	}
-
-	/**
-	 * Getr stavu vrcholu.
-	 * 
-	 * @return stav vrcholu
-	 */
-	public int getStav() {
-	    return stav;
-	}
-
-	/**
-	 * Setr stavu vrcholu.
-	 * 
-	 * @param stav
-	 *            pripustne pouze FRESH=0, OPENED=1, CLOSED=2
-	 */
-	public void setStav(int stav) {
-	    if (stav == OPENED || stav == CLOSED || stav == FRESH) {
-		this.stav = stav;
-	    }
-	}
-
-	/* (non-Javadoc)
-	 * @see java.lang.Object#toString()
-	 */
-	@Override
-	public String toString() {
-	    return this.getKlic() + " ";
-	}
-
-    }
-
-    /** Privatni trida reprezentujici graf. */
+    /**
+     * Privatni trida reprezentujici graf. Vrcholy jsou cisla radku a sloupcu
+     * matice, jejich klice jsou ve slovniku pod stejnymi cisly. Stav vrcholu
+     * pri prohledavani se uchovava zvlast v {@link StavProhledavani}.
+     */
     private class Graf {
-	/** Index prvku pro pole <code>vrcholy</code>. */
-	private int index = 0;
-	/** Pole vrcholu. */
-	private final Vrchol[] vrcholy;
+	/** Slovnik klicu vrcholu. */
+	private final SlovnikVrcholu slovnik;
 	/** Matice uchovavajici si informaci o existenci hran. */
 	private final String[][] matice;
 	/**
 	 * Startovni velikost. Ve skutecnosti si uchovava hodnotu
-	 * <code>vrcholy.size()</code>
+	 * <code>slovnik.getPocet()</code>
 	 */
 	private final int start;
 
 	/**
-	 * Konstruktor grafu zajistujici inicializaci pole vrcholu a matice.
-	 * Zaroven pole vrcholu naplni hodnotou <code>null</code>.
+	 * Konstruktor grafu zajistujici inicializaci matice.
 	 * 
-	 * @param start
-	 *            startovni velikost
+	 * @param slovnik
+	 *            slovnik klicu vrcholu
 	 */
-	public Graf(int start) {
-	    this.start = start;
+	public Graf(SlovnikVrcholu slovnik) {
+	    this.slovnik = slovnik;
+	    this.start = slovnik.getPocet();
 	    this.matice = new String[start][start];
-	    this.vrcholy = new Vrchol[start];
-	    for (int index = 0; index < vrcholy.length; index++) {
-		vrcholy[index] = null;
-	    }
-	}
-
-	/**
-	 * Pridani vrcholu tzn. zmena hodnoty <code>null</code> na objekt typu
-	 * Vrchol.
-	 * 
-	 * @param klic
-	 *            hodnota vrcholu
-	 */
-	public void addNode(String klic) {
-	    Vrchol tmp = new Vrchol(klic, FRESH);
-	    vrcholy[index++] = tmp;
 	}
 
 	/**
 	 * Pridani orientovane hrany grafu.
 	 * 
 	 * @param start
-	 *            startovni vrchol ze ktereho bude hrana vychazet
+	 *            cislo vrcholu ze ktereho bude hrana vychazet
 	 * @param end
-	 *            koncovy vrchol do ktereho bude hrana prichazet
+	 *            cislo vrcholu do ktereho bude hrana prichazet
 	 */
-	public void addOriEdge(String start, String end) {
-	    for (int index = 0; index < this.start; index++) {
-		if (vrcholy[index].getKlic().equals(start)) {
-		    for (int j = 0; j < this.start; j++) {
-			if (vrcholy[j].getKlic().equals(end)) {
-			    matice[index][j] = "" + 1;
-			}
-		    }
-		}
-	    }
+	public void addOriEdge(int start, int end) {
+	    matice[start][end] = "" + 1;
 	}
 
 	/**
@@ -148,21 +57,32 @@ public class MaticeSousednosti {
 	 * koncový vrchol, je treba zajistit propojeni hrany v obou smerech.
 	 * 
 	 * @param start
-	 *            startovni vrchol ze ktereho bude hrana vychazet
+	 *            cislo vrcholu ze ktereho bude hrana vychazet
 	 * @param end
-	 *            koncový vrchol do ktereho bude hrana prichazet
+	 *            cislo vrcholu do ktereho bude hrana prichazet
 	 */
-	public void addNoriEdge(String start, String end) {
-	    for (int index = 0; index < this.start; index++) {
-		if (vrcholy[index].getKlic().equals(start)) {
-		    for (int j = 0; j < this.start; j++) {
-			if (vrcholy[j].getKlic().equals(end)) {
-			    matice[index][j] = "" + 1;
-			    matice[j][index] = "" + 1;
-			}
-		    }
+	public void addNoriEdge(int start, int end) {
+	    matice[start][end] = "" + 1;
+	    matice[end][start] = "" + 1;
+	}
+
+	/**
+	 * Jeden krok prohledavani. Vybere vrchol z fronty (zasobniku), otevre
+	 * jeho dosud nenavstivene sousedy a vrchol uzavre.
+	 * 
+	 * @param stav
+	 *            stav prohledavani, fronta (zasobnik) nesmi byt prazdna
+	 * @return index zpracovaneho vrcholu
+	 */
+	public int krok(StavProhledavani stav) {
+	    int tmp = stav.vyber();
+	    for (int index = 0; index < matice.length; index++) {
+		if (matice[tmp][index] == "1") {
+		    stav.otevri(index);
 		}
 	    }
+	    stav.uzavri(tmp);
+	    return tmp;
 	}
 
 	/**
@@ -173,42 +93,11 @@ public class MaticeSousednosti {
 	 *            pocatecni index ze ktereho se zacne graf prohledavat
 	 * @param file
 	 *            <code>PrintWriter</code> pro tisknuti do souboru
+	 * @param kontrolniBod
+	 *            kontrolni body prohledavani
 	 */
-	public void BFS(String start, PrintWriter file) {
-	    int pozice = -1;
-	    for (int index = 0; index < vrcholy.length; index++) {
-		pozice = vrcholy[index].getKlic().equals(start) ? index : -1;
-		if (pozice == index) {
-		    break;
-		}
-	    }
-	    if (pozice == -1) {
-		System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
-		System.exit(1);
-	    }
-	    vrcholy[pozice].setStav(OPENED);
-	    Queue<Integer> fronta = new LinkedList<Integer>();
-	    fronta.add(pozice);
-	    while (!fronta.isEmpty()) {
-		int tmp = fronta.poll();
-		for (int index = 0; index < matice.length; index++) {
-		    if (matice[tmp][index] == "1") {
-			if (vrcholy[index].getStav() == FRESH) {
-			    vrcholy[index].setStav(OPENED);
-			    fronta.add(index);
-			}
-		    }
-
-		}
-		vrcholy[tmp].setStav(CLOSED);
-		if (!fronta.isEmpty()) {
-		    System.out.print(vrcholy[tmp] + ", ");
-		    file.print(vrcholy[tmp] + ", ");
-		} else {
-		    System.out.println(vrcholy[tmp]);
-		    file.println(vrcholy[tmp]);
-		}
-	    }
+	public void BFS(String start, PrintWriter file, KontrolniBod kontrolniBod) {
+	    prohledej(start, file, true, kontrolniBod);
 	}
 
 	/**
@@ -219,41 +108,45 @@ public class MaticeSousednosti {
 	 *            pocatecni index ze ktereho se zacne graf prohledavat
 	 * @param file
 	 *            <code>PrintWriter</code> pro tisknuti do souboru
+	 * @param kontrolniBod
+	 *            kontrolni body prohledavani
 	 */
-	public void DFS(String start, PrintWriter file) {
-	    int pozice = -1;
-	    for (int index = 0; index < vrcholy.length; index++) {
-		pozice = vrcholy[index].getKlic().equals(start) ? index : -1;
-		if (pozice == index) {
-		    break;
-		}
-	    }
+	public void DFS(String start, PrintWriter file, KontrolniBod kontrolniBod) {
+	    prohledej(start, file, false, kontrolniBod);
+	}
+
+	/**
+	 * Spolecna cast BFS a DFS, ktere se lisi jen frontou a zasobnikem.
+	 * 
+	 * @param start
+	 *            pocatecni index ze ktereho se zacne graf prohledavat
+	 * @param file
+	 *            <code>PrintWriter</code> pro tisknuti do souboru
+	 * @param doSirky
+	 *            <code>true</code> pro BFS, <code>false</code> pro DFS
+	 * @param kontrolniBod
+	 *            kontrolni body prohledavani, ze kterych lze po preruseni
+	 *            pokracovat
+	 */
+	private void prohledej(String start, PrintWriter file, boolean doSirky, KontrolniBod kontrolniBod) {
+	    int pozice = slovnik.najdi(start);
 	    if (pozice == -1) {
 		System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
 		System.exit(1);
 	    }
-	    vrcholy[pozice].setStav(OPENED);
-	    Stack<Integer> zasobnik = new Stack<Integer>();
-	    zasobnik.add(pozice);
-	    while (!zasobnik.isEmpty()) {
-		int tmp = zasobnik.pop();
-		for (int index = 0; index < matice.length; index++) {
-		    if (matice[tmp][index] == "1") {
-			if (vrcholy[index].getStav() == FRESH) {
-			    vrcholy[index].setStav(OPENED);
-			    zasobnik.add(index);
-			}
-		    }
-
-		}
-		vrcholy[tmp].setStav(CLOSED);
-		if (!zasobnik.isEmpty()) {
-		    System.out.print(vrcholy[tmp] + ", ");
-		    file.print(vrcholy[tmp] + ", ");
+	    StavProhledavani stav = new StavProhledavani(this.start);
+	    kontrolniBod.zacni(stav, pozice, doSirky);
+	    while (!stav.isPrazdny()) {
+		int tmp = krok(stav);
+		String klic = slovnik.getKlic(tmp) + " ";
+		if (!stav.isPrazdny()) {
+		    System.out.print(klic + ", ");
+		    file.print(klic + ", ");
 		} else {
-		    System.out.println(vrcholy[tmp]);
-		    file.println(vrcholy[tmp]);
+		    System.out.println(klic);
+		    file.println(klic);
 		}
+		kontrolniBod.zpracovan(stav, tmp);
 	    }
 	}
     }
@@ -267,40 +160,53 @@ public class MaticeSousednosti {
      *            orientovani grafu, variante a startovnim vrcholu
      */
     public void init(DataParser dataParser) {
-	LinkedList<String> hrany = dataParser.getHrany();
-	LinkedList<String> vrcholy = dataParser.getVrcholy();
+	init(dataParser, dataParser.getVarianta());
+    }
+
+    /**
+     * Inicializacni metoda s explicitne zadanou variantou. Pouziva ji
+     * automaticka volba reprezentace, kdy se varianta ze vstupu (AUTO_BFS,
+     * AUTO_DFS) teprve prevadi na konkretni variantu <3, 4>.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu a startovnim vrcholu
+     * @param varianta
+     *            varianta prohledavani, 3 pro BFS, 4 pro DFS
+     */
+    public void init(DataParser dataParser, int varianta) {
+	int[] hrany = dataParser.getHrany();
 	boolean addOriEdge = dataParser.getAddOriEdge();
-	int varianta = dataParser.getVarianta();
 	String start = dataParser.getStart();
 
-	Graf graf = new Graf(vrcholy.size());
-	while (!vrcholy.isEmpty()) {
-	    graf.addNode(vrcholy.poll());
-	}
-
-	while (!hrany.isEmpty()) {
-	    String[] pole = hrany.poll().split("[=<>]+");
+	Graf graf = new Graf(dataParser.getVrcholy());
+	for (int index = 0; index < dataParser.getPocetHran(); index++) {
 	    if (addOriEdge) {
-		graf.addOriEdge(pole[0], pole[1]);
+		graf.addOriEdge(hrany[2 * index], hrany[2 * index + 1]);
 	    } else {
-		graf.addNoriEdge(pole[0], pole[1]);
+		graf.addNoriEdge(hrany[2 * index], hrany[2 * index + 1]);
 	    }
 	}
+	KontrolniBod kontrolniBod = new KontrolniBod(dataParser, varianta);
 	PrintWriter file = null;
 	try {
-	    file = new PrintWriter(new FileWriter("vystup.txt"));
+	    file = kontrolniBod.otevriVystup();
 	} catch (IOException e) {
 	    e.printStackTrace();
 	}
 	if (varianta == 3) {
 	    System.out.print("\nBFS(" + start + "): ");
-	    file.print("BFS(" + start + "): ");
-	    graf.BFS(start, file);
+	    if (!kontrolniBod.isObnoveno()) {
+		file.print("BFS(" + start + "): ");
+	    }
+	    graf.BFS(start, file, kontrolniBod);
 	} else if (varianta == 4) {
 	    System.out.print("\nDFS(" + start + "): ");
-	    file.print("DFS(" + start + "): ");
-	    graf.DFS(start, file);
+	    if (!kontrolniBod.isObnoveno()) {
+		file.print("DFS(" + start + "): ");
+	    }
+	    graf.DFS(start, file, kontrolniBod);
 	}
-	file.close();
+	kontrolniBod.dokonceno();
     }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package semestralka;
+
+/**
+ * Vrchol vraceny pri postupnem prohledavani grafu tridou {@link Pruchod}.
+ * 
+ * @author Martin Zlamal
+ */
+public class NavstivenyVrchol {
+    /** Index vrcholu v grafu. */
+    private final int index;
+    /** Hodnota klice vrcholu. */
+    private final String klic;
+    /** Vzdalenost od startu ve strome prohledavani. */
+    private final int hloubka;
+
+    /**
+     * Konstruktor navstiveneho vrcholu.
+     * 
+     * @param index
+     *            index vrcholu v grafu
+     * @param klic
+     *            hodnota klice vrcholu
+     * @param hloubka
+     *            vzdalenost od startu ve strome prohledavani
+     */
+    public NavstivenyVrchol(int index, String klic, int hloubka) {
+	this.index = index;
+	this.klic = klic;
+	this.hloubka = hloubka;
+    }
+
+    /**
+     * Getr indexu vrcholu.
+     * 
+     * @return index vrcholu v grafu
+     */
+    public int getIndex() {
+	return index;
+    }
+
+    /**
+     * Getr klice vrcholu.
+     * 
+     * @return hodnota klice
+     */
+    public String getKlic() {
+	return klic;
+    }
+
+    /**
+     * Getr hloubky vrcholu.
+     * 
+     * @return vzdalenost od startu ve strome prohledavani
+     */
+    public int getHloubka() {
+	return hloubka;
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+	return klic + "[" + hloubka + "] ";
+    }
+}
\ No newline at end of file
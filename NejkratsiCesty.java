@@ -0,0 +1,548 @@
+package semestralka;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Nejkratsi cesty z jednoho vrcholu (SSSP) v ohodnocenem grafu
+ * (orientovanem i neorientovanem). Vahy hran jsou nezaporna cela cisla ze
+ * vstupu (<code>a>b:7</code>), hrana bez vahy ma vahu 1.
+ * 
+ * Graf se ulozi do kompaktnich poli (CSR): zacatky seznamu sousedu, cile hran
+ * a jejich vahy. Vzdalenosti se spocitaji dvakrat. Nejdriv sekvencnim
+ * Dijkstrovym algoritmem s primitivni 4-arni haldou, ktery je zakladem pro
+ * srovnani a urcuje poradi vypisu. Pak paralelnim delta-stepping: vrcholy se
+ * podle vzdalenosti radi do kapes sirky delta, kapsy se zpracovavaji
+ * postupne a hrany vrcholu jedne kapsy se relaxuji soubezne ve vlaknech.
+ * Lehke hrany (vaha nejvyse delta) se relaxuji opakovane, dokud se kapsa
+ * nevyprazdni, tezke hrany az jednou po jejim vyprazdneni. Vzdalenosti se
+ * snizuji atomicky (compare-and-set).
+ * 
+ * Sirka kapsy a pocet vlaken se nastavuji systemovymi vlastnostmi
+ * <code>delta</code> (vychozi hodnota je nejvetsi vaha deleno prumernym
+ * stupnem) a <code>vlakna</code> (vychozi hodnota je pocet procesoru). Do
+ * souboru se vypisi dosazitelne vrcholy podle vzdalenosti ve tvaru
+ * <code>klic[vzdalenost]</code>.
+ * 
+ * @author Martin Zlamal
+ */
+public class NejkratsiCesty {
+    /** Vzdalenost nedosazitelneho vrcholu. */
+    private static final long NEKONECNO = Long.MAX_VALUE;
+    /** Nejmensi pocet vrcholu kapsy, ktery se rozdeli mezi vlakna. */
+    private static final int PRAH = 1024;
+    /** Nejvetsi pocet kapes, mensi delta se zvetsi. */
+    private static final int KAPES = 1 << 20;
+
+    /** Pocet vrcholu grafu. */
+    private int pocetVrcholu;
+    /** Zacatky seznamu sousedu v polich cilu a vah. */
+    private int[] zacatky;
+    /** Cile hran. */
+    private int[] cile;
+    /** Vahy hran. */
+    private int[] vahy;
+    /** Nejvetsi vaha hrany. */
+    private int nejvetsiVaha;
+    /** Zacatky tezkych hran, u kazdeho vrcholu jsou lehke hrany prvni. */
+    private int[] tezke;
+
+    /** Privatni trida reprezentujici rostouci pole cisel vrcholu. */
+    private static class Seznam {
+	/** Cisla vrcholu. */
+	private int[] prvky = new int[16];
+	/** Pocet vrcholu. */
+	private int pocet = 0;
+
+	/**
+	 * Prida vrchol na konec seznamu.
+	 * 
+	 * @param vrchol
+	 *            cislo vrcholu
+	 */
+	public void pridej(int vrchol) {
+	    if (pocet == prvky.length) {
+		prvky = Arrays.copyOf(prvky, pocet * 2);
+	    }
+	    prvky[pocet++] = vrchol;
+	}
+    }
+
+    /**
+     * Privatni trida reprezentujici 4-arni minimovou haldu vrcholu podle
+     * vzdalenosti. Kazdy vrchol je v halde nejvyse jednou a jeho pozice se
+     * uchovava, takze snizeni vzdalenosti jen posune vrchol smerem ke koreni.
+     */
+    private static class Halda {
+	/** Vrcholy haldy. */
+	private final int[] vrcholy;
+	/** Pozice vrcholu v halde, -1 pro vrchol mimo haldu. */
+	private final int[] pozice;
+	/** Vzdalenosti vrcholu, podle kterych se halda radi. */
+	private final long[] vzdalenosti;
+	/** Pocet vrcholu v halde. */
+	private int pocet = 0;
+
+	/**
+	 * Konstruktor prazdne haldy.
+	 * 
+	 * @param vzdalenosti
+	 *            vzdalenosti vrcholu, halda je cte pri kazdem porovnani
+	 */
+	public Halda(long[] vzdalenosti) {
+	    this.vrcholy = new int[vzdalenosti.length];
+	    this.pozice = new int[vzdalenosti.length];
+	    this.vzdalenosti = vzdalenosti;
+	    Arrays.fill(pozice, -1);
+	}
+
+	/**
+	 * Zjisti, zda je halda prazdna.
+	 * 
+	 * @return <code>true</code> pokud v halde neni zadny vrchol
+	 */
+	public boolean isPrazdna() {
+	    return pocet == 0;
+	}
+
+	/**
+	 * Vlozi vrchol do haldy, nebo ho po snizeni vzdalenosti posune na
+	 * spravne misto.
+	 * 
+	 * @param vrchol
+	 *            cislo vrcholu
+	 */
+	public void sniz(int vrchol) {
+	    int index = pozice[vrchol];
+	    if (index == -1) {
+		index = pocet++;
+	    }
+	    long vzdalenost = vzdalenosti[vrchol];
+	    while (index > 0) {
+		int rodic = (index - 1) >> 2;
+		if (vzdalenosti[vrcholy[rodic]] <= vzdalenost) {
+		    break;
+		}
+		vrcholy[index] = vrcholy[rodic];
+		pozice[vrcholy[index]] = index;
+		index = rodic;
+	    }
+	    vrcholy[index] = vrchol;
+	    pozice[vrchol] = index;
+	}
+
+	/**
+	 * Odebere vrchol s nejmensi vzdalenosti.
+	 * 
+	 * @return cislo vrcholu
+	 */
+	public int odeber() {
+	    int koren = vrcholy[0];
+	    pozice[koren] = -1;
+	    int posledni = vrcholy[--pocet];
+	    if (pocet == 0) {
+		return koren;
+	    }
+	    long vzdalenost = vzdalenosti[posledni];
+	    int index = 0;
+	    while (true) {
+		int prvni = 4 * index + 1;
+		if (prvni >= pocet) {
+		    break;
+		}
+		int nejmensi = prvni;
+		int konec = Math.min(prvni + 4, pocet);
+		for (int dite = prvni + 1; dite < konec; dite++) {
+		    if (vzdalenosti[vrcholy[dite]] < vzdalenosti[vrcholy[nejmensi]]) {
+			nejmensi = dite;
+		    }
+		}
+		if (vzdalenosti[vrcholy[nejmensi]] >= vzdalenost) {
+		    break;
+		}
+		vrcholy[index] = vrcholy[nejmensi];
+		pozice[vrcholy[index]] = index;
+		index = nejmensi;
+	    }
+	    vrcholy[index] = posledni;
+	    pozice[posledni] = index;
+	    return koren;
+	}
+    }
+
+    /**
+     * Inicializacni metoda zajistujici sestaveni grafu, vypocet vzdalenosti
+     * obema algoritmy a vypis vysledku.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, jejich vahy, vrcholy a
+     *            informace o orientovani grafu a startovnim vrcholu
+     */
+    public void init(DataParser dataParser) {
+	SlovnikVrcholu klice = dataParser.getVrcholy();
+	String start = dataParser.getStart();
+	int pozice = klice.najdi(start);
+	if (pozice == -1) {
+	    System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
+	    System.exit(1);
+	}
+	nacti(dataParser);
+
+	int[] poradi = new int[pocetVrcholu];
+	long zacatek = System.nanoTime();
+	long[] dijkstra = dijkstra(pozice, poradi);
+	long trvaniDijkstra = System.nanoTime() - zacatek;
+	int dosazeno = 0;
+	while (dosazeno < pocetVrcholu && poradi[dosazeno] != -1) {
+	    dosazeno++;
+	}
+
+	long delta = Math.max(Long.getLong("delta", vychoziDelta()), Math.max(1, nejvetsiVaha / KAPES));
+	int vlaken = Math.max(1, Integer.getInteger("vlakna", Runtime.getRuntime().availableProcessors()));
+	ExecutorService exekutor = Executors.newFixedThreadPool(vlaken);
+	long[] deltaStepping;
+	int[] kapsy = new int[1];
+	zacatek = System.nanoTime();
+	try {
+	    deltaStepping = deltaStepping(pozice, delta, exekutor, vlaken, kapsy);
+	} finally {
+	    exekutor.shutdown();
+	}
+	long trvaniDelta = System.nanoTime() - zacatek;
+
+	PrintWriter file = null;
+	try {
+	    file = new PrintWriter(new FileWriter("vystup.txt"));
+	} catch (IOException e) {
+	    e.printStackTrace();
+	}
+	System.out.print("\nSSSP(" + start + "): ");
+	file.print("SSSP(" + start + "): ");
+	for (int index = 0; index < dosazeno; index++) {
+	    String klic = klice.getKlic(poradi[index]) + "[" + dijkstra[poradi[index]] + "] ";
+	    if (index + 1 < dosazeno) {
+		System.out.print(klic + ", ");
+		file.print(klic + ", ");
+	    } else {
+		System.out.println(klic);
+		file.println(klic);
+	    }
+	}
+	file.close();
+
+	System.out.println("Dosazeno " + dosazeno + " z " + pocetVrcholu + " vrcholu, " + cile.length + " hran");
+	System.out.println(String.format("  Dijkstra (4-arni halda): %.1f ms", trvaniDijkstra / 1e6));
+	System.out.println(String.format("  delta-stepping (delta %d, vlaken %d, kapes %d): %.1f ms", delta,
+		vlaken, kapsy[0], trvaniDelta / 1e6));
+	System.out.println("  vzdalenosti shodne: " + (Arrays.equals(dijkstra, deltaStepping) ? "ano" : "NE"));
+    }
+
+    /**
+     * Sestavi z hran dataParseru pole zacatku, cilu a vah. Neorientovana
+     * hrana se ulozi v obou smerech. U kazdeho vrcholu seradi hrany tak, aby
+     * lehke byly pred tezkymi, hranici urci az delta-stepping.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, jejich vahy a informace o
+     *            orientovani grafu
+     */
+    private void nacti(DataParser dataParser) {
+	int[] hrany = dataParser.getHrany();
+	int[] vstupniVahy = dataParser.getVahy();
+	boolean addOriEdge = dataParser.getAddOriEdge();
+	int pocetHran = dataParser.getPocetHran();
+
+	pocetVrcholu = dataParser.getVrcholy().getPocet();
+	zacatky = new int[pocetVrcholu + 1];
+	for (int index = 0; index < pocetHran; index++) {
+	    zacatky[hrany[2 * index] + 1]++;
+	    if (!addOriEdge) {
+		zacatky[hrany[2 * index + 1] + 1]++;
+	    }
+	}
+	for (int index = 0; index < pocetVrcholu; index++) {
+	    zacatky[index + 1] += zacatky[index];
+	}
+	cile = new int[zacatky[pocetVrcholu]];
+	vahy = new int[zacatky[pocetVrcholu]];
+	int[] plneni = Arrays.copyOf(zacatky, pocetVrcholu);
+	for (int index = 0; index < pocetHran; index++) {
+	    int u = hrany[2 * index];
+	    int v = hrany[2 * index + 1];
+	    int w = vstupniVahy == null ? 1 : vstupniVahy[index];
+	    nejvetsiVaha = Math.max(nejvetsiVaha, w);
+	    cile[plneni[u]] = v;
+	    vahy[plneni[u]++] = w;
+	    if (!addOriEdge) {
+		cile[plneni[v]] = u;
+		vahy[plneni[v]++] = w;
+	    }
+	}
+    }
+
+    /**
+     * Vychozi sirka kapsy, nejvetsi vaha hrany deleno prumernym stupnem
+     * vrcholu. Pak je v kapse v prumeru jen malo vrcholu, jejichz lehke
+     * hrany vedou zpet do teze kapsy.
+     * 
+     * @return sirka kapsy
+     */
+    private long vychoziDelta() {
+	long stupen = Math.max(1, cile.length / Math.max(1, pocetVrcholu));
+	return Math.max(1, nejvetsiVaha / stupen);
+    }
+
+    /**
+     * Sekvencni Dijkstruv algoritmus se 4-arni haldou.
+     * 
+     * @param start
+     *            index startovniho vrcholu
+     * @param poradi
+     *            pole, do ktereho se zapisi vrcholy v poradi uzavreni, za
+     *            poslednim dosazenym vrcholem je -1
+     * @return vzdalenosti vrcholu od startu, {@link #NEKONECNO} pro
+     *         nedosazitelne vrcholy
+     */
+    private long[] dijkstra(int start, int[] poradi) {
+	long[] vzdalenosti = new long[pocetVrcholu];
+	Arrays.fill(vzdalenosti, NEKONECNO);
+	Arrays.fill(poradi, -1);
+	Halda halda = new Halda(vzdalenosti);
+	vzdalenosti[start] = 0;
+	halda.sniz(start);
+	int uzavreno = 0;
+	while (!halda.isPrazdna()) {
+	    int u = halda.odeber();
+	    poradi[uzavreno++] = u;
+	    long du = vzdalenosti[u];
+	    for (int hrana = zacatky[u]; hrana < zacatky[u + 1]; hrana++) {
+		int v = cile[hrana];
+		long nova = du + vahy[hrana];
+		if (nova < vzdalenosti[v]) {
+		    vzdalenosti[v] = nova;
+		    halda.sniz(v);
+		}
+	    }
+	}
+	return vzdalenosti;
+    }
+
+    /**
+     * Paralelni delta-stepping. Kapes je jen tolik, kolik jich muze byt
+     * obsazeno najednou (nejvetsi vaha deleno delta a dve navic, nejvyse
+     * {@value #KAPES} a dve navic), a pouzivaji se dokola. Vrchol muze byt v
+     * kapsach vicekrat, pri zpracovani kapsy se proto vynechaji vrcholy,
+     * ktere uz do ni nepatri, a duplicity.
+     * 
+     * @param start
+     *            index startovniho vrcholu
+     * @param delta
+     *            sirka kapsy
+     * @param exekutor
+     *            vlakna pro relaxaci hran
+     * @param vlaken
+     *            pocet vlaken exekutoru
+     * @param kapsy
+     *            pole, do jehoz prvniho prvku se zapise pocet zpracovanych
+     *            kapes
+     * @return vzdalenosti vrcholu od startu, {@link #NEKONECNO} pro
+     *         nedosazitelne vrcholy
+     */
+    private long[] deltaStepping(int start, long delta, ExecutorService exekutor, int vlaken, int[] kapsy) {
+	tezke = new int[pocetVrcholu];
+	for (int u = 0; u < pocetVrcholu; u++) {
+	    int lehka = zacatky[u];
+	    for (int hrana = zacatky[u]; hrana < zacatky[u + 1]; hrana++) {
+		if (vahy[hrana] <= delta) {
+		    int tmp = cile[hrana];
+		    cile[hrana] = cile[lehka];
+		    cile[lehka] = tmp;
+		    tmp = vahy[hrana];
+		    vahy[hrana] = vahy[lehka];
+		    vahy[lehka++] = tmp;
+		}
+	    }
+	    tezke[u] = lehka;
+	}
+
+	final AtomicLongArray vzdalenosti = new AtomicLongArray(pocetVrcholu);
+	for (int u = 0; u < pocetVrcholu; u++) {
+	    vzdalenosti.set(u, NEKONECNO);
+	}
+	Seznam[] kapes = new Seznam[(int) (nejvetsiVaha / delta + 2)];
+	for (int index = 0; index < kapes.length; index++) {
+	    kapes[index] = new Seznam();
+	}
+	Seznam[] vystupy = new Seznam[vlaken];
+	for (int index = 0; index < vlaken; index++) {
+	    vystupy[index] = new Seznam();
+	}
+	int[] vKapse = new int[pocetVrcholu];
+	int[] uzavreny = new int[pocetVrcholu];
+	int faze = 0;
+
+	vzdalenosti.set(start, 0);
+	kapes[0].pridej(start);
+	long kapsa = 0;
+	while (true) {
+	    int posun = 0;
+	    while (posun < kapes.length && kapes[(int) ((kapsa + posun) % kapes.length)].pocet == 0) {
+		posun++;
+	    }
+	    if (posun == kapes.length) {
+		break;
+	    }
+	    kapsa += posun;
+	    kapsy[0]++;
+	    Seznam aktualni = kapes[(int) (kapsa % kapes.length)];
+	    Seznam zpracovane = new Seznam();
+	    while (aktualni.pocet > 0) {
+		faze++;
+		Seznam hranice = new Seznam();
+		for (int index = 0; index < aktualni.pocet; index++) {
+		    int u = aktualni.prvky[index];
+		    if (vKapse[u] != faze && vzdalenosti.get(u) / delta == kapsa) {
+			vKapse[u] = faze;
+			hranice.pridej(u);
+			if (uzavreny[u] != kapsy[0]) {
+			    uzavreny[u] = kapsy[0];
+			    zpracovane.pridej(u);
+			}
+		    }
+		}
+		aktualni.pocet = 0;
+		relaxuj(hranice, true, vzdalenosti, exekutor, vystupy);
+		roztrid(vystupy, vzdalenosti, delta, kapes);
+	    }
+	    relaxuj(zpracovane, false, vzdalenosti, exekutor, vystupy);
+	    roztrid(vystupy, vzdalenosti, delta, kapes);
+	}
+
+	long[] tmp = new long[pocetVrcholu];
+	for (int u = 0; u < pocetVrcholu; u++) {
+	    tmp[u] = vzdalenosti.get(u);
+	}
+	return tmp;
+    }
+
+    /**
+     * Relaxuje lehke nebo tezke hrany vrcholu. Velky seznam vrcholu rozdeli
+     * na useky pro jednotliva vlakna, maly zpracuje v aktualnim vlakne.
+     * Vrcholy, jejichz vzdalenost se snizila, zapise vlakno do sveho
+     * vystupu.
+     * 
+     * @param vrcholy
+     *            vrcholy, jejichz hrany se relaxuji
+     * @param lehke
+     *            <code>true</code> pro lehke hrany, <code>false</code> pro
+     *            tezke
+     * @param vzdalenosti
+     *            vzdalenosti vrcholu
+     * @param exekutor
+     *            vlakna pro relaxaci hran
+     * @param vystupy
+     *            vystupy vlaken
+     */
+    private void relaxuj(final Seznam vrcholy, final boolean lehke, final AtomicLongArray vzdalenosti,
+	    ExecutorService exekutor, final Seznam[] vystupy) {
+	if (vrcholy.pocet < PRAH || vystupy.length == 1) {
+	    relaxuj(vrcholy, 0, vrcholy.pocet, lehke, vzdalenosti, vystupy[0]);
+	    return;
+	}
+	List<Callable<Void>> ulohy = new ArrayList<Callable<Void>>();
+	for (int index = 0; index < vystupy.length; index++) {
+	    final int od = (int) ((long) vrcholy.pocet * index / vystupy.length);
+	    final int po = (int) ((long) vrcholy.pocet * (index + 1) / vystupy.length);
+	    final Seznam vystup = vystupy[index];
+	    ulohy.add(new Callable<Void>() {
+		@Override
+		public Void call() {
+		    relaxuj(vrcholy, od, po, lehke, vzdalenosti, vystup);
+		    return null;
+		}
+	    });
+	}
+	try {
+	    for (Future<Void> uloha : exekutor.invokeAll(ulohy)) {
+		uloha.get();
+	    }
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new IllegalStateException(e);
+	} catch (ExecutionException e) {
+	    throw new IllegalStateException(e.getCause());
+	}
+    }
+
+    /**
+     * Relaxuje lehke nebo tezke hrany useku seznamu vrcholu.
+     * 
+     * @param vrcholy
+     *            vrcholy, jejichz hrany se relaxuji
+     * @param od
+     *            prvni index useku
+     * @param po
+     *            index za koncem useku
+     * @param lehke
+     *            <code>true</code> pro lehke hrany, <code>false</code> pro
+     *            tezke
+     * @param vzdalenosti
+     *            vzdalenosti vrcholu
+     * @param vystup
+     *            seznam vrcholu, jejichz vzdalenost se snizila
+     */
+    private void relaxuj(Seznam vrcholy, int od, int po, boolean lehke, AtomicLongArray vzdalenosti,
+	    Seznam vystup) {
+	for (int index = od; index < po; index++) {
+	    int u = vrcholy.prvky[index];
+	    long du = vzdalenosti.get(u);
+	    int prvni = lehke ? zacatky[u] : tezke[u];
+	    int konec = lehke ? tezke[u] : zacatky[u + 1];
+	    for (int hrana = prvni; hrana < konec; hrana++) {
+		int v = cile[hrana];
+		long nova = du + vahy[hrana];
+		long stara = vzdalenosti.get(v);
+		while (nova < stara) {
+		    if (vzdalenosti.compareAndSet(v, stara, nova)) {
+			vystup.pridej(v);
+			break;
+		    }
+		    stara = vzdalenosti.get(v);
+		}
+	    }
+	}
+    }
+
+    /**
+     * Roztridi vrcholy z vystupu vlaken do kapes podle jejich aktualni
+     * vzdalenosti a vystupy vyprazdni.
+     * 
+     * @param vystupy
+     *            vystupy vlaken
+     * @param vzdalenosti
+     *            vzdalenosti vrcholu
+     * @param delta
+     *            sirka kapsy
+     * @param kapes
+     *            kapsy pouzivane dokola
+     */
+    private void roztrid(Seznam[] vystupy, AtomicLongArray vzdalenosti, long delta, Seznam[] kapes) {
+	for (Seznam vystup : vystupy) {
+	    for (int index = 0; index < vystup.pocet; index++) {
+		int v = vystup.prvky[index];
+		kapes[(int) (vzdalenosti.get(v) / delta % kapes.length)].pridej(v);
+	    }
+	    vystup.pocet = 0;
+	}
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package semestralka;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Pracovni proces distribuovaneho prohledavani do sirky. Spousti ho
+ * {@link DistribuovanyBFS} jako samostatny JVM. Proces vlastni souvisly usek
+ * cisel vrcholu, jejich seznamy sousednosti a informaci, zda uz byly
+ * navstiveny. Seznamy sousednosti si sestavi ze souboru s hranami svych
+ * vrcholu, ktery pro nej pripravil koordinator.
+ * 
+ * V kazde urovni dostane od koordinatora davku kandidatu (vlastnich vrcholu
+ * dosazenych v predchozi urovni), vrati ty z nich, ktere jeste navstiveny
+ * nebyly, a davku jejich sousedu.
+ * 
+ * @author Martin Zlamal
+ */
+public class PracovniProces {
+    /** Prikaz koordinatora k ukonceni procesu. */
+    static final int KONEC = 0;
+    /** Prikaz koordinatora ke zpracovani dalsi urovne. */
+    static final int UROVEN = 1;
+
+    /**
+     * Hlavni metoda pracovniho procesu.
+     * 
+     * @param args
+     *            port koordinatora na lokalnim rozhrani a cislo procesu
+     */
+    public static void main(String[] args) {
+	int port = Integer.parseInt(args[0]);
+	int cislo = Integer.parseInt(args[1]);
+	Socket socket = null;
+	try {
+	    socket = new Socket(InetAddress.getLoopbackAddress(), port);
+	    socket.setTcpNoDelay(true);
+	    DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+	    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+	    out.writeInt(cislo);
+	    out.flush();
+
+	    int od = in.readInt();
+	    int pocet = in.readInt() - od;
+	    File cast = new File(in.readUTF());
+	    long hran = cast.length() / 8;
+	    int[] zacatky = new int[pocet + 1];
+	    DataInputStream hrany = new DataInputStream(new BufferedInputStream(new FileInputStream(cast), 1 << 16));
+	    try {
+		for (long index = 0; index < hran; index++) {
+		    zacatky[hrany.readInt() - od + 1]++;
+		    hrany.readInt();
+		}
+	    } finally {
+		hrany.close();
+	    }
+	    for (int index = 0; index < pocet; index++) {
+		zacatky[index + 1] += zacatky[index];
+	    }
+	    int[] sousede = new int[zacatky[pocet]];
+	    int[] plneni = Arrays.copyOf(zacatky, pocet);
+	    hrany = new DataInputStream(new BufferedInputStream(new FileInputStream(cast), 1 << 16));
+	    try {
+		for (long index = 0; index < hran; index++) {
+		    int vrchol = hrany.readInt() - od;
+		    sousede[plneni[vrchol]++] = hrany.readInt();
+		}
+	    } finally {
+		hrany.close();
+	    }
+	    plneni = null;
+	    boolean[] navstivene = new boolean[pocet];
+
+	    while (in.readInt() == UROVEN) {
+		BalikId kandidati = BalikId.cti(in);
+		BalikId nove = new BalikId();
+		BalikId dalsi = new BalikId();
+		for (int index = 0; index < kandidati.getPocet(); index++) {
+		    int vrchol = kandidati.get(index) - od;
+		    if (!navstivene[vrchol]) {
+			navstivene[vrchol] = true;
+			nove.pridej(vrchol + od);
+			for (int j = zacatky[vrchol]; j < zacatky[vrchol + 1]; j++) {
+			    dalsi.pridej(sousede[j]);
+			}
+		    }
+		}
+		nove.zapis(out);
+		dalsi.zapis(out);
+		out.flush();
+	    }
+	} catch (IOException e) {
+	    System.err.println("Pracovni proces " + cislo + " selhal!");
+	    e.printStackTrace();
+	    System.exit(1);
+	} finally {
+	    if (socket != null) {
+		try {
+		    socket.close();
+		} catch (IOException e) {
+		    e.printStackTrace();
+		}
+	    }
+	}
+    }
+}
\ No newline at end of file
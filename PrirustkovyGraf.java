@@ -0,0 +1,719 @@
+package semestralka;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Ulozeny graf, do ktereho se prirustkove nacitaji zmeny. Varianta 14
+ * sestavi graf ze vstupu a ulozi ho do adresare (systemova vlastnost
+ * <code>graf</code>, vychozi hodnota <code>graf</code>). Varianta 15 ulozeny
+ * graf nacte a slouci do nej vstup jako davku zmen: hrany s pomlckou na
+ * zacatku (<code>-a>b</code>) se odeberou, ostatni se pridaji, nove klice se
+ * pridaji na konec slovniku. V jedne davce se nejdriv odebira, pak pridava.
+ * Odebira se kazdy vyskyt hrany. Po nacteni obe varianty prohledaji graf do
+ * sirky (BFS) ze startovniho vrcholu stejne jako seznam sousednosti, vahy
+ * hran se neukladaji.
+ * 
+ * Graf je ulozen jako log: zaklad a za nim segmenty zmen. Zaklad obsahuje
+ * slovnik klicu (<code>slovnik-g.bin</code>) a sousedy vsech vrcholu
+ * v poradi pridani (<code>zaklad-g.bin</code>, zacatky seznamu sousedu a
+ * sousede), kde <code>g</code> je generace zakladu. Oba soubory se
+ * nacitaji pres <code>FileChannel.map</code>, sousede po usecich o
+ * {@value #USEK} polozkach, protoze jedno mapovani pojme nejvyse 2 GB. Cte
+ * se tak jen to, co se skutecne pouzije. Kazda davka zmen se zapise jako
+ * novy segment (<code>log-n.bin</code>) s novymi klici, odebranymi a
+ * pridanymi hranami. Pri nacteni se segmenty prehraji nad zakladem a
+ * zmenene vrcholy dostanou vlastni seznam sousedu v hashovaci tabulce podle
+ * cisla vrcholu, ostatni zustavaji v zakladu. Nacteni i zapis davky tak
+ * stoji jen tolik, jak jsou velke zmeny, ne cely graf.
+ * 
+ * Kdyz je nesloucenych segmentu aspon <code>segmenty</code> (systemova
+ * vlastnost, vychozi hodnota {@value #SEGMENTY}) nebo zmen aspon osmina
+ * zakladu, spusti se na pozadi kompaktace. Ta zapise novou generaci zakladu,
+ * atomicky prepise soubor <code>manifest</code> s cislem generace a
+ * poslednim zahrnutym segmentem a pak smaze starou generaci a sloucene
+ * segmenty. Prohledavani mezitim bezi nad grafem v pameti. Segmenty se
+ * zapisuji pres docasny soubor a atomicke prejmenovani, takze po preruseni
+ * zustane na disku vzdy platny graf.
+ * 
+ * @author Martin Zlamal
+ */
+public class PrirustkovyGraf {
+    /** Znacka na zacatku vsech souboru ulozeneho grafu. */
+    private static final int ZNACKA = 0x50524752;
+    /** Vychozi pocet nesloucenych segmentu, pri kterem se spusti kompaktace. */
+    private static final int SEGMENTY = 4;
+    /** Soubor s generaci zakladu a poslednim sloucenym segmentem. */
+    private static final String MANIFEST = "manifest";
+    /** Pocet sousedu v jednom namapovanem useku (1 GB). */
+    private static final int USEK = 1 << 28;
+
+    /** Adresar ulozeneho grafu. */
+    private File adresar;
+    /** Generace zakladu. */
+    private int generace;
+    /** <code>true</code> pro orientovany graf. */
+    private boolean orientovany;
+    /** Cislo posledniho segmentu slouceneho do zakladu. */
+    private int pokryto;
+    /** Cislo posledniho zapsaneho segmentu. */
+    private int posledniSegment;
+    /** Pocet nesloucenych segmentu. */
+    private int segmentu = 0;
+    /** Pocet zmen hran v nesloucenych segmentech. */
+    private long zmen = 0;
+    /** Slovnik klicu vrcholu. */
+    private SlovnikVrcholu slovnik;
+    /** Pocet vrcholu zakladu. */
+    private int zakladVrcholu;
+    /** Zacatky seznamu sousedu zakladu. */
+    private IntBuffer zacatky;
+    /** Sousede vrcholu zakladu po usecich o {@value #USEK} polozkach. */
+    private IntBuffer[] sousede;
+    /** Pocet sousedu zakladu. */
+    private int pocetSousedu;
+    /** Seznamy sousedu zmenenych vrcholu podle cisla vrcholu. */
+    private final HashMap<Integer, Seznam> zmenene = new HashMap<Integer, Seznam>();
+    /** Vlakno kompaktace, nebo null. */
+    private Thread kompaktace;
+    /** Vysledek kompaktace pro vypis. */
+    private volatile String vysledekKompaktace;
+
+    /** Privatni trida reprezentujici seznam sousedu zmeneneho vrcholu. */
+    private static class Seznam {
+	/** Cisla sousedu. */
+	private int[] prvky;
+	/** Pocet sousedu. */
+	private int pocet;
+    }
+
+    /**
+     * Inicializacni metoda zajistujici sestaveni (varianta 14) nebo
+     * prirustkove nacteni (varianta 15) ulozeneho grafu a jeho prohledani.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany (u varianty 15 pridavane a
+     *            odebirane), vrcholy a informace o orientovani grafu,
+     *            variante a startovnim vrcholu
+     */
+    public void init(DataParser dataParser) {
+	adresar = new File(System.getProperty("graf", "graf"));
+	String start = dataParser.getStart();
+	String prirustek;
+	long zacatek = System.nanoTime();
+	try {
+	    if (dataParser.getVarianta() == 14) {
+		vytvor(dataParser);
+		prirustek = "sestaveno z " + dataParser.getPocetHran() + " hran";
+	    } else {
+		nacti();
+		prirustek = slucZmeny(dataParser);
+	    }
+	} catch (FileNotFoundException e) {
+	    System.out.println("\nUlozeny graf v adresari \"" + adresar + "\" neexistuje, vytvorte ho variantou 14!");
+	    System.exit(1);
+	    return;
+	} catch (IOException e) {
+	    System.out.println("\nUlozeny graf v adresari \"" + adresar + "\" se nepodarilo zpracovat: " + e);
+	    System.exit(1);
+	    return;
+	}
+	long trvani = System.nanoTime() - zacatek;
+	if (segmentu >= Integer.getInteger("segmenty", SEGMENTY) || zmen * 8 > pocetSousedu) {
+	    spustKompaktaci();
+	}
+
+	int pozice = slovnik.najdi(start);
+	if (pozice == -1) {
+	    System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
+	    System.exit(1);
+	}
+	PrintWriter file = null;
+	try {
+	    file = new PrintWriter(new FileWriter("vystup.txt"));
+	} catch (IOException e) {
+	    e.printStackTrace();
+	}
+	System.out.print("\nBFS(" + start + "): ");
+	file.print("BFS(" + start + "): ");
+	StavProhledavani stav = new StavProhledavani(slovnik.getPocet());
+	stav.zacni(pozice, true);
+	while (!stav.isPrazdny()) {
+	    int tmp = krok(stav);
+	    String klic = slovnik.getKlic(tmp) + " ";
+	    if (!stav.isPrazdny()) {
+		System.out.print(klic + ", ");
+		file.print(klic + ", ");
+	    } else {
+		System.out.println(klic);
+		file.println(klic);
+	    }
+	}
+	file.close();
+
+	System.out.println("Ulozeny graf \"" + adresar + "\": " + slovnik.getPocet() + " vrcholu, zaklad generace "
+		+ generace + " s " + pocetSousedu + " sousedy, nesloucenych segmentu " + segmentu);
+	System.out.println(String.format("  %s, %.1f ms", prirustek, trvani / 1e6));
+	if (kompaktace != null) {
+	    try {
+		kompaktace.join();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+	    }
+	    System.out.println("  " + vysledekKompaktace);
+	}
+    }
+
+    /**
+     * Jeden krok prohledavani. Sousedy prochazi od naposledy pridaneho, tedy
+     * ve stejnem poradi jako {@link SeznamSousednosti}.
+     * 
+     * @param stav
+     *            stav prohledavani, fronta (zasobnik) nesmi byt prazdna
+     * @return index zpracovaneho vrcholu
+     */
+    private int krok(StavProhledavani stav) {
+	int tmp = stav.vyber();
+	Seznam seznam = zmenene.get(tmp);
+	if (seznam != null) {
+	    for (int index = seznam.pocet - 1; index >= 0; index--) {
+		stav.otevri(seznam.prvky[index]);
+	    }
+	} else if (tmp < zakladVrcholu) {
+	    for (int index = zacatky.get(tmp + 1) - 1; index >= zacatky.get(tmp); index--) {
+		stav.otevri(soused(index));
+	    }
+	}
+	stav.uzavri(tmp);
+	return tmp;
+    }
+
+    /**
+     * Sestavi graf z hran dataParseru a ulozi ho jako prvni generaci zakladu.
+     * Predchozi ulozeny graf v adresari smaze. Odebirane hrany jsou chybou,
+     * v nove sestavenem grafu neni co odebrat.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu
+     * @throws IOException
+     *             pri chybe zapisu
+     */
+    private void vytvor(DataParser dataParser) throws IOException {
+	if (dataParser.getPocetOdebranych() > 0) {
+	    System.out.println("\nOdebrane hrany (-a>b) lze pouzit jen ve variante 15, varianta 14 graf sestavuje!");
+	    System.exit(1);
+	}
+	int[] hrany = dataParser.getHrany();
+	orientovany = dataParser.getAddOriEdge();
+	slovnik = dataParser.getVrcholy();
+	zakladVrcholu = slovnik.getPocet();
+
+	int[] z = new int[zakladVrcholu + 1];
+	for (int index = 0; index < dataParser.getPocetHran(); index++) {
+	    z[hrany[2 * index] + 1]++;
+	    if (!orientovany) {
+		z[hrany[2 * index + 1] + 1]++;
+	    }
+	}
+	for (int index = 0; index < zakladVrcholu; index++) {
+	    z[index + 1] += z[index];
+	}
+	int[] s = new int[z[zakladVrcholu]];
+	int[] plneni = Arrays.copyOf(z, zakladVrcholu);
+	for (int index = 0; index < dataParser.getPocetHran(); index++) {
+	    int u = hrany[2 * index];
+	    int v = hrany[2 * index + 1];
+	    s[plneni[u]++] = v;
+	    if (!orientovany) {
+		s[plneni[v]++] = u;
+	    }
+	}
+	zacatky = IntBuffer.wrap(z);
+	pocetSousedu = s.length;
+	sousede = new IntBuffer[(s.length + USEK - 1) / USEK];
+	for (int index = 0; index < sousede.length; index++) {
+	    sousede[index] = IntBuffer.wrap(s, index * USEK, Math.min(USEK, s.length - index * USEK)).slice();
+	}
+
+	if (!adresar.isDirectory() && !adresar.mkdirs()) {
+	    throw new IOException("nelze vytvorit adresar");
+	}
+	File[] soubory = adresar.listFiles();
+	if (soubory != null) {
+	    for (File soubor : soubory) {
+		if (soubor.getName().matches("(zaklad|slovnik)-[0-9]+\\.bin|log-[0-9]+\\.bin|.*\\.tmp|" + MANIFEST)) {
+		    soubor.delete();
+		}
+	    }
+	}
+	generace = 1;
+	pokryto = 0;
+	posledniSegment = 0;
+	zapisZaklad(generace);
+    }
+
+    /**
+     * Nacte ulozeny graf: manifest, slovnik a zaklad jeho generace a pak
+     * prehraje neslouceny segmenty. Smaze soubory, ktere zustaly po
+     * prerusene kompaktaci.
+     * 
+     * @throws IOException
+     *             pri chybe cteni nebo poskozenem souboru
+     */
+    private void nacti() throws IOException {
+	DataInputStream in = new DataInputStream(new FileInputStream(new File(adresar, MANIFEST)));
+	try {
+	    kontrola(in.readInt() == ZNACKA, MANIFEST);
+	    generace = in.readInt();
+	    orientovany = in.readBoolean();
+	    pokryto = in.readInt();
+	} finally {
+	    in.close();
+	}
+	posledniSegment = pokryto;
+
+	File soubor = new File(adresar, "slovnik-" + generace + ".bin");
+	FileChannel kanal = FileChannel.open(soubor.toPath(), StandardOpenOption.READ);
+	try {
+	    kontrola(kanal.size() >= 4, soubor.getName());
+	    kontrola(kanal.map(FileChannel.MapMode.READ_ONLY, 0, 4).getInt(0) == ZNACKA, soubor.getName());
+	    slovnik = SlovnikVrcholu.mapuj(kanal, 4);
+	} finally {
+	    kanal.close();
+	}
+
+	soubor = new File(adresar, "zaklad-" + generace + ".bin");
+	kanal = FileChannel.open(soubor.toPath(), StandardOpenOption.READ);
+	try {
+	    kontrola(kanal.size() >= 12, soubor.getName());
+	    IntBuffer hlavicka = kanal.map(FileChannel.MapMode.READ_ONLY, 0, 12).asIntBuffer();
+	    kontrola(hlavicka.get(0) == ZNACKA, soubor.getName());
+	    zakladVrcholu = hlavicka.get(1);
+	    pocetSousedu = hlavicka.get(2);
+	    long pozice = 12 + 4L * (zakladVrcholu + 1);
+	    kontrola(zakladVrcholu == slovnik.getPocet() && pocetSousedu >= 0
+		    && pozice + 4L * pocetSousedu <= kanal.size(), soubor.getName());
+	    zacatky = kanal.map(FileChannel.MapMode.READ_ONLY, 12, 4L * (zakladVrcholu + 1)).asIntBuffer();
+	    sousede = new IntBuffer[(int) ((pocetSousedu + (long) USEK - 1) / USEK)];
+	    for (int index = 0; index < sousede.length; index++) {
+		int polozek = Math.min(USEK, pocetSousedu - index * USEK);
+		sousede[index] = kanal.map(FileChannel.MapMode.READ_ONLY, pozice + 4L * index * USEK, 4L * polozek)
+			.asIntBuffer();
+	    }
+	} finally {
+	    kanal.close();
+	}
+
+	String[] nazvy = adresar.list();
+	int[] cisla = new int[nazvy.length];
+	int pocet = 0;
+	for (String nazev : nazvy) {
+	    if (nazev.matches("log-[0-9]+\\.bin")) {
+		cisla[pocet++] = Integer.parseInt(nazev.substring(4, nazev.length() - 4));
+	    } else if (nazev.matches("(zaklad|slovnik)-[0-9]+\\.bin")
+		    && !nazev.equals("zaklad-" + generace + ".bin") && !nazev.equals("slovnik-" + generace + ".bin")
+		    || nazev.endsWith(".tmp")) {
+		new File(adresar, nazev).delete();
+	    }
+	}
+	Arrays.sort(cisla, 0, pocet);
+	for (int index = 0; index < pocet; index++) {
+	    if (cisla[index] <= pokryto) {
+		segment(cisla[index]).delete();
+	    } else {
+		prehraj(segment(cisla[index]));
+		posledniSegment = cisla[index];
+		segmentu++;
+	    }
+	}
+    }
+
+    /**
+     * Prehraje segment zmen nad grafem v pameti.
+     * 
+     * @param soubor
+     *            soubor segmentu
+     * @throws IOException
+     *             pri chybe cteni nebo poskozenem souboru
+     */
+    private void prehraj(File soubor) throws IOException {
+	DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(soubor), 1 << 16));
+	try {
+	    kontrola(in.readInt() == ZNACKA, soubor.getName());
+	    int prvni = in.readInt();
+	    int novych = in.readInt();
+	    kontrola(prvni == slovnik.getPocet(), soubor.getName());
+	    for (int index = 0; index < novych; index++) {
+		slovnik.pridej(in.readUTF());
+	    }
+	    kontrola(slovnik.getPocet() == prvni + novych, soubor.getName());
+	    int odebranych = in.readInt();
+	    for (int index = 0; index < odebranych; index++) {
+		odeberHranu(in.readInt(), in.readInt());
+	    }
+	    int pridanych = in.readInt();
+	    for (int index = 0; index < pridanych; index++) {
+		pridejHranu(in.readInt(), in.readInt());
+	    }
+	    zmen += odebranych + pridanych;
+	} finally {
+	    in.close();
+	}
+    }
+
+    /**
+     * Slouci davku zmen z dataParseru do grafu v pameti a zapise ji jako
+     * novy segment. Odebrana hrana, jejiz vrchol ve slovniku neni, se
+     * preskoci.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci pridavane a odebirane hrany a
+     *            jejich vrcholy
+     * @return popis davky pro vypis
+     * @throws IOException
+     *             pri chybe zapisu segmentu
+     */
+    private String slucZmeny(DataParser dataParser) throws IOException {
+	if (dataParser.getAddOriEdge() && !orientovany) {
+	    System.out.println("\nDo neorientovaneho grafu nelze pridat orientovane hrany!");
+	    System.exit(1);
+	}
+	SlovnikVrcholu lokalni = dataParser.getVrcholy();
+	int[] mapa = new int[lokalni.getPocet()];
+	Arrays.fill(mapa, -2);
+	int prvni = slovnik.getPocet();
+
+	int[] odebrane = dataParser.getOdebrane();
+	int[] platne = new int[2 * dataParser.getPocetOdebranych()];
+	int odebranych = 0;
+	for (int index = 0; index < dataParser.getPocetOdebranych(); index++) {
+	    for (int konec = 0; konec < 2; konec++) {
+		int id = odebrane[2 * index + konec];
+		if (mapa[id] == -2) {
+		    mapa[id] = slovnik.najdi(lokalni.getKlic(id));
+		}
+	    }
+	    int u = mapa[odebrane[2 * index]];
+	    int v = mapa[odebrane[2 * index + 1]];
+	    if (u != -1 && v != -1) {
+		odeberHranu(u, v);
+		platne[2 * odebranych] = u;
+		platne[2 * odebranych++ + 1] = v;
+	    }
+	}
+
+	int[] hrany = dataParser.getHrany();
+	int[] pridane = new int[2 * dataParser.getPocetHran()];
+	for (int index = 0; index < 2 * dataParser.getPocetHran(); index++) {
+	    int id = hrany[index];
+	    if (mapa[id] < 0) {
+		mapa[id] = slovnik.pridej(lokalni.getKlic(id));
+	    }
+	    pridane[index] = mapa[id];
+	}
+	for (int index = 0; index < dataParser.getPocetHran(); index++) {
+	    pridejHranu(pridane[2 * index], pridane[2 * index + 1]);
+	}
+
+	int novych = slovnik.getPocet() - prvni;
+	if (odebranych == 0 && dataParser.getPocetHran() == 0 && novych == 0) {
+	    return "prazdna davka zmen";
+	}
+	File docasny = new File(adresar, "log.tmp");
+	FileOutputStream fos = new FileOutputStream(docasny);
+	try {
+	    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16));
+	    out.writeInt(ZNACKA);
+	    out.writeInt(prvni);
+	    out.writeInt(novych);
+	    for (int id = prvni; id < slovnik.getPocet(); id++) {
+		out.writeUTF(slovnik.getKlic(id));
+	    }
+	    out.writeInt(odebranych);
+	    for (int index = 0; index < 2 * odebranych; index++) {
+		out.writeInt(platne[index]);
+	    }
+	    out.writeInt(dataParser.getPocetHran());
+	    for (int id : pridane) {
+		out.writeInt(id);
+	    }
+	    out.flush();
+	    fos.getFD().sync();
+	} finally {
+	    fos.close();
+	}
+	long bajtu = docasny.length();
+	Files.move(docasny.toPath(), segment(posledniSegment + 1).toPath(), StandardCopyOption.ATOMIC_MOVE);
+	posledniSegment++;
+	segmentu++;
+	zmen += odebranych + dataParser.getPocetHran();
+	return "davka zmen: pridano " + dataParser.getPocetHran() + " a odebrano " + odebranych + " hran, novych klicu "
+		+ novych + ", segment " + segment(posledniSegment).getName() + " " + VyberReprezentace.velikost(bajtu);
+    }
+
+    /**
+     * Spusti kompaktaci na pozadi. Graf v pameti se uz nemeni, takze ho
+     * vlakno kompaktace muze cist soubezne s prohledavanim.
+     */
+    private void spustKompaktaci() {
+	final int nova = generace + 1;
+	final int stara = generace;
+	final int sloucit = posledniSegment;
+	final int pocet = segmentu;
+	kompaktace = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		long zacatek = System.nanoTime();
+		try {
+		    zapisZaklad(nova);
+		    new File(adresar, "zaklad-" + stara + ".bin").delete();
+		    new File(adresar, "slovnik-" + stara + ".bin").delete();
+		    for (int cislo = pokryto + 1; cislo <= sloucit; cislo++) {
+			segment(cislo).delete();
+		    }
+		    vysledekKompaktace = String.format("kompaktace: %d segmentu slouceno do generace %d, %.1f ms",
+			    pocet, nova, (System.nanoTime() - zacatek) / 1e6);
+		} catch (IOException e) {
+		    vysledekKompaktace = "kompaktace se nezdarila: " + e;
+		}
+	    }
+	}, "kompaktace");
+	kompaktace.start();
+    }
+
+    /**
+     * Zapise graf v pameti jako zaklad dane generace (slovnik a sousedy) a
+     * pak atomicky prepise manifest. Segmenty az po posledni zapsany se tim
+     * stanou sloucenymi.
+     * 
+     * @param nova
+     *            generace zakladu
+     * @throws IOException
+     *             pri chybe zapisu
+     */
+    private void zapisZaklad(int nova) throws IOException {
+	int pocetVrcholu = slovnik.getPocet();
+	long polozek = 0;
+	for (int u = 0; u < pocetVrcholu; u++) {
+	    polozek += getStupen(u);
+	}
+	if (polozek > Integer.MAX_VALUE) {
+	    throw new IOException("graf ma vic nez " + Integer.MAX_VALUE + " sousedu");
+	}
+	FileOutputStream fos = new FileOutputStream(new File(adresar, "zaklad-" + nova + ".bin"));
+	try {
+	    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16));
+	    out.writeInt(ZNACKA);
+	    out.writeInt(pocetVrcholu);
+	    out.writeInt((int) polozek);
+	    int zacatek = 0;
+	    for (int u = 0; u < pocetVrcholu; u++) {
+		out.writeInt(zacatek);
+		zacatek += getStupen(u);
+	    }
+	    out.writeInt(zacatek);
+	    for (int u = 0; u < pocetVrcholu; u++) {
+		Seznam seznam = zmenene.get(u);
+		if (seznam != null) {
+		    for (int index = 0; index < seznam.pocet; index++) {
+			out.writeInt(seznam.prvky[index]);
+		    }
+		} else if (u < zakladVrcholu) {
+		    for (int index = zacatky.get(u); index < zacatky.get(u + 1); index++) {
+			out.writeInt(soused(index));
+		    }
+		}
+	    }
+	    out.flush();
+	    fos.getFD().sync();
+	} finally {
+	    fos.close();
+	}
+
+	fos = new FileOutputStream(new File(adresar, "slovnik-" + nova + ".bin"));
+	try {
+	    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16));
+	    out.writeInt(ZNACKA);
+	    slovnik.zapis(out);
+	    out.flush();
+	    fos.getFD().sync();
+	} finally {
+	    fos.close();
+	}
+
+	File docasny = new File(adresar, MANIFEST + ".tmp");
+	fos = new FileOutputStream(docasny);
+	try {
+	    DataOutputStream out = new DataOutputStream(fos);
+	    out.writeInt(ZNACKA);
+	    out.writeInt(nova);
+	    out.writeBoolean(orientovany);
+	    out.writeInt(posledniSegment);
+	    out.flush();
+	    fos.getFD().sync();
+	} finally {
+	    fos.close();
+	}
+	Files.move(docasny.toPath(), new File(adresar, MANIFEST).toPath(), StandardCopyOption.REPLACE_EXISTING,
+		StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Getr poctu sousedu vrcholu.
+     * 
+     * @param u
+     *            cislo vrcholu
+     * @return pocet sousedu
+     */
+    private int getStupen(int u) {
+	Seznam seznam = zmenene.get(u);
+	if (seznam != null) {
+	    return seznam.pocet;
+	}
+	return u < zakladVrcholu ? zacatky.get(u + 1) - zacatky.get(u) : 0;
+    }
+
+    /**
+     * Getr souseda zakladu.
+     * 
+     * @param index
+     *            index souseda v zakladu
+     * @return cislo souseda
+     */
+    private int soused(int index) {
+	return sousede[index / USEK].get(index % USEK);
+    }
+
+    /**
+     * Vrati vlastni seznam sousedu vrcholu, pokud ho jeste nema, pripravi
+     * ho. Seznam zacne kopii sousedu ze zakladu.
+     * 
+     * @param u
+     *            cislo vrcholu
+     * @return seznam sousedu vrcholu
+     */
+    private Seznam zmen(int u) {
+	Seznam seznam = zmenene.get(u);
+	if (seznam == null) {
+	    seznam = new Seznam();
+	    seznam.pocet = getStupen(u);
+	    seznam.prvky = new int[Math.max(4, seznam.pocet * 2)];
+	    for (int index = 0; index < seznam.pocet; index++) {
+		seznam.prvky[index] = soused(zacatky.get(u) + index);
+	    }
+	    zmenene.put(u, seznam);
+	}
+	return seznam;
+    }
+
+    /**
+     * Prida hranu do grafu v pameti, u neorientovaneho grafu v obou smerech.
+     * 
+     * @param u
+     *            cislo vrcholu, ze ktereho hrana vychazi
+     * @param v
+     *            cislo vrcholu, do ktereho hrana prichazi
+     */
+    private void pridejHranu(int u, int v) {
+	pridejSouseda(u, v);
+	if (!orientovany) {
+	    pridejSouseda(v, u);
+	}
+    }
+
+    /**
+     * Odebere vsechny vyskyty hrany z grafu v pameti, u neorientovaneho
+     * grafu v obou smerech.
+     * 
+     * @param u
+     *            cislo vrcholu, ze ktereho hrana vychazi
+     * @param v
+     *            cislo vrcholu, do ktereho hrana prichazi
+     */
+    private void odeberHranu(int u, int v) {
+	odeberSouseda(u, v);
+	if (!orientovany) {
+	    odeberSouseda(v, u);
+	}
+    }
+
+    /**
+     * Prida souseda na konec seznamu sousedu vrcholu.
+     * 
+     * @param u
+     *            cislo vrcholu
+     * @param v
+     *            cislo souseda
+     */
+    private void pridejSouseda(int u, int v) {
+	Seznam seznam = zmen(u);
+	if (seznam.pocet == seznam.prvky.length) {
+	    seznam.prvky = Arrays.copyOf(seznam.prvky, seznam.pocet * 2);
+	}
+	seznam.prvky[seznam.pocet++] = v;
+    }
+
+    /**
+     * Odebere vsechny vyskyty souseda ze seznamu sousedu vrcholu, poradi
+     * ostatnich sousedu zachova.
+     * 
+     * @param u
+     *            cislo vrcholu
+     * @param v
+     *            cislo souseda
+     */
+    private void odeberSouseda(int u, int v) {
+	Seznam seznam = zmen(u);
+	int pocet = 0;
+	for (int index = 0; index < seznam.pocet; index++) {
+	    if (seznam.prvky[index] != v) {
+		seznam.prvky[pocet++] = seznam.prvky[index];
+	    }
+	}
+	seznam.pocet = pocet;
+    }
+
+    /**
+     * Vrati soubor segmentu zmen.
+     * 
+     * @param cislo
+     *            cislo segmentu
+     * @return soubor segmentu
+     */
+    private File segment(int cislo) {
+	return new File(adresar, String.format("log-%08d.bin", cislo));
+    }
+
+    /**
+     * Overi podminku platnosti ulozeneho grafu.
+     * 
+     * @param podminka
+     *            podminka, ktera musi platit
+     * @param soubor
+     *            nazev kontrolovaneho souboru
+     * @throws IOException
+     *             pokud podminka neplati
+     */
+    private static void kontrola(boolean podminka, String soubor) throws IOException {
+	if (!podminka) {
+	    throw new IOException("poskozeny soubor " + soubor);
+	}
+    }
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+package semestralka;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Postupne (line) prohledavani grafu do sirky nebo do hloubky. Dalsi vrchol
+ * se spocita az ve chvili, kdy si o nej volajici rekne, takze prace odpovida
+ * jen tomu, kolik vrcholu se skutecne precte. Pri vyberu vrcholu se otevrou
+ * jeho sousede, dalsi vrcholy se nezpracovavaji.
+ * 
+ * Prohledavani lze omezit nejvetsi hloubkou (okoli do k kroku), poctem
+ * zpracovanych vrcholu a cilovym vrcholem, po jehoz zpracovani prohledavani
+ * skonci. Filtr urcuje, ktere zpracovane vrcholy se vrati, prohledavani
+ * pokracuje i pres vrcholy, ktere filtr nepropusti. Omezeni je treba
+ * nastavit pred prvnim ctenim.
+ * 
+ * @author Martin Zlamal
+ */
+public class Pruchod implements Iterator<NavstivenyVrchol> {
+    /** Prohledavany graf. */
+    private final SeznamSousednosti graf;
+    /** Stav prohledavani. */
+    private final StavProhledavani stav;
+    /** Nejvetsi pocet zpracovanych vrcholu. */
+    private long limit = Long.MAX_VALUE;
+    /** Index ciloveho vrcholu, -1 pokud neni zadan. */
+    private int cil = -1;
+    /** Filtr vracenych vrcholu, <code>null</code> pokud neni zadan. */
+    private Predicate<NavstivenyVrchol> filtr = null;
+    /** Pripraveny dalsi vrchol, <code>null</code> pokud jeste neni spocten. */
+    private NavstivenyVrchol dalsi = null;
+    /** Pocet zpracovanych vrcholu. */
+    private long zpracovano = 0;
+    /** <code>true</code> pokud uz byl zpracovan cilovy vrchol. */
+    private boolean konec = false;
+
+    /**
+     * Konstruktor pruchodu s novym stavem prohledavani.
+     * 
+     * @param graf
+     *            nacteny graf
+     * @param start
+     *            klic startovniho vrcholu
+     * @param doSirky
+     *            <code>true</code> pro BFS, <code>false</code> pro DFS
+     */
+    public Pruchod(SeznamSousednosti graf, String start, boolean doSirky) {
+	this(graf, start, doSirky, new StavProhledavani(graf.getPocetVrcholu()));
+    }
+
+    /**
+     * Konstruktor pruchodu, ktery znovu pouzije existujici stav prohledavani.
+     * Stav nesmi soucasne pouzivat jine prohledavani.
+     * 
+     * @param graf
+     *            nacteny graf
+     * @param start
+     *            klic startovniho vrcholu
+     * @param doSirky
+     *            <code>true</code> pro BFS, <code>false</code> pro DFS
+     * @param stav
+     *            stav prohledavani pro graf stejne velikosti
+     */
+    public Pruchod(SeznamSousednosti graf, String start, boolean doSirky, StavProhledavani stav) {
+	int pozice = graf.indexVrcholu(start);
+	if (pozice == -1) {
+	    throw new IllegalArgumentException("Vrchol \"" + start + "\" se nepodařilo najít!");
+	}
+	this.graf = graf;
+	this.stav = stav;
+	stav.zacni(pozice, doSirky);
+    }
+
+    /**
+     * Omezi prohledavani na vrcholy do dane hloubky.
+     * 
+     * @param maxHloubka
+     *            nejvetsi hloubka, 0 znamena jen startovni vrchol
+     * @return tento pruchod
+     */
+    public Pruchod setMaxHloubka(int maxHloubka) {
+	zkontrolujZacatek();
+	stav.setMaxHloubka(maxHloubka);
+	return this;
+    }
+
+    /**
+     * Omezi pocet zpracovanych vrcholu.
+     * 
+     * @param limit
+     *            nejvetsi pocet zpracovanych vrcholu
+     * @return tento pruchod
+     */
+    public Pruchod setLimit(long limit) {
+	zkontrolujZacatek();
+	this.limit = limit;
+	return this;
+    }
+
+    /**
+     * Nastavi cilovy vrchol, po jehoz zpracovani prohledavani skonci.
+     * 
+     * @param cil
+     *            klic ciloveho vrcholu
+     * @return tento pruchod
+     */
+    public Pruchod setCil(String cil) {
+	zkontrolujZacatek();
+	this.cil = graf.indexVrcholu(cil);
+	if (this.cil == -1) {
+	    throw new IllegalArgumentException("Vrchol \"" + cil + "\" se nepodařilo najít!");
+	}
+	return this;
+    }
+
+    /**
+     * Nastavi filtr vracenych vrcholu.
+     * 
+     * @param filtr
+     *            podminka, kterou musi vraceny vrchol splnit
+     * @return tento pruchod
+     */
+    public Pruchod setFiltr(Predicate<NavstivenyVrchol> filtr) {
+	zkontrolujZacatek();
+	this.filtr = filtr;
+	return this;
+    }
+
+    /**
+     * Getr poctu zpracovanych vrcholu.
+     * 
+     * @return pocet vrcholu, jejichz sousede uz byli otevreni
+     */
+    public long getZpracovano() {
+	return zpracovano;
+    }
+
+    /**
+     * Vrati pruchod jako sekvencni proud vrcholu.
+     * 
+     * @return proud navstivenych vrcholu
+     */
+    public Stream<NavstivenyVrchol> stream() {
+	return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED
+		| Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+	while (dalsi == null && !konec && !stav.isPrazdny() && zpracovano < limit) {
+	    int tmp = graf.krok(stav);
+	    zpracovano++;
+	    konec = tmp == cil;
+	    NavstivenyVrchol vrchol = new NavstivenyVrchol(tmp, graf.getKlic(tmp), stav.getHloubka(tmp));
+	    if (filtr == null || filtr.test(vrchol)) {
+		dalsi = vrchol;
+	    }
+	}
+	return dalsi != null;
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public NavstivenyVrchol next() {
+	if (!hasNext()) {
+	    throw new NoSuchElementException();
+	}
+	NavstivenyVrchol tmp = dalsi;
+	dalsi = null;
+	return tmp;
+    }
+
+    /**
+     * Overi, ze prohledavani jeste nezacalo.
+     */
+    private void zkontrolujZacatek() {
+	if (zpracovano != 0) {
+	    throw new IllegalStateException("Omezeni je treba nastavit pred prvnim ctenim!");
+	}
+    }
+}
\ No newline at end of file
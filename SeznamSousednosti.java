@@ -1,78 +1,35 @@
 package semestralka;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Stack;
 
 /**
  * Prohledavani grafu (orientovaneho i neorientovaneho) do hloubky (DFS) a do
- * sirky (BFS) pro jeho reprezentaci seznamem sousednoti.
+ * sirky (BFS) pro jeho reprezentaci seznamem sousednoti. Prerusene prohledavani
+ * pokracuje z posledniho kontrolniho bodu (viz {@link KontrolniBod}).
  * 
  * @author Martin Zlamal
  */
 public class SeznamSousednosti {
-    /** Hodnota jeste nenavstiveneho vrcholu. */
-    private final int FRESH = 0;
-    /** Hodnota vrcholu navstiveneho, ne vsak uzavreneho. */
-    private final int OPENED = 1;
-    /** Hodnota uzavreneho vrcholu. */
-    private final int CLOSED = 2;
-
-    /** Privatni trida reprezentujici vrchol. */
+    /** Graf nacteny metodou {@link #nacti(DataParser)}. */
+    private Graf graf;
+
+    /**
+     * Privatni trida reprezentujici vrchol. Stav vrcholu pri prohledavani se
+     * uchovava zvlast v {@link StavProhledavani}, klic vrcholu ve slovniku
+     * grafu pod cislem, ktere odpovida indexu vrcholu v poli vrcholu.
+     */
     private class Vrchol {
-	/** Uchovava hodnotu klice, resp. hodnotu vrcholu. */
-	private final String klic;
-	/** Uchovava stav. FRESH=0, OPENED=1, CLOSED=2 */
-	private int stav;
 	/** Uchovává odkaz na okolní sousedy. */
 	private Soused sousedi;
 
 	/**
-	 * Konstruktor vrcholu zajistujici inicializaci klice a stavu vrcholu.
-	 * 
-	 * @param klic
-	 *            hodnota klice, resp. hodnota vrcholu
-	 * @param stav
-	 *            stav vrcholu, FRESH=0, OPENED=1, CLOSED=2
+	 * Konstruktor vrcholu bez sousedu.
 	 */
-	public Vrchol(String klic, int stav) {
-	    this.klic = klic;
+	public Vrchol() {
 	    this.sousedi = null;
 	}
 
-	/**
-	 * Getr klice vrcholu.
-	 * 
-	 * @return hodnota klice
-	 */
-	public String getKlic() {
-	    return klic;
-	}
-
-	/**
-	 * Getr stavu vrcholu.
-	 * 
-	 * @return stav vrcholu
-	 */
-	public int getStav() {
-	    return stav;
-	}
-
-	/**
-	 * Setr stavu vrcholu.
-	 * 
-	 * @param stav
-	 *            pripustne pouze FRESH=0, OPENED=1, CLOSED=2
-	 */
-	public void setStav(int stav) {
-	    if (stav == OPENED || stav == CLOSED || stav == FRESH) {
-		this.stav = stav;
-	    }
-	}
-
 	/**
 	 * Getr sousednich vrcholu (sousedu).
 	 * 
@@ -93,14 +50,6 @@ public class SeznamSousednosti {
 		this.sousedi = sousedi;
 	    }
 	}
-
-	/* (non-Javadoc)
-	 * @see java.lang.Object#toString()
-	 */
-	@Override
-	public String toString() {
-	    return this.getKlic() + " ";
-	}
     }
 
     /**
@@ -108,29 +57,32 @@ public class SeznamSousednosti {
      * spojovy seznam pro jednotlivy vrchol.
      */
     private class Soused {
-	/** Uchovava hodnotu klice, resp. hodnotu vrcholu. */
-	private final String vrchol;
+	/**
+	 * Uchovava index vrcholu v poli vrcholu grafu. Index se urci jednou
+	 * pri vkladani hrany, pri prohledavani se uz vrchol nehleda.
+	 */
+	private final int vrchol;
 	/** Odkaz na dalsi polozku spojoveho seznamu sousedu. */
 	private Soused dalsi;
 
 	/**
-	 * Konstruktor souseda zajistujici inicializaci klice a odkazu na další
-	 * položku spojového seznamu.
+	 * Konstruktor souseda zajistujici inicializaci indexu vrcholu a odkazu
+	 * na další položku spojového seznamu.
 	 * 
 	 * @param vrchol
-	 *            hodnota klice, resp. hodnota vrcholu
+	 *            index vrcholu v poli vrcholu grafu
 	 */
-	public Soused(String vrchol) {
+	public Soused(int vrchol) {
 	    this.vrchol = vrchol;
 	    this.dalsi = null;
 	}
 
 	/**
-	 * Getr klice vrcholu.
+	 * Getr indexu vrcholu.
 	 * 
-	 * @return hodnota klice resp. hodnota vrcholu
+	 * @return index vrcholu v poli vrcholu grafu
 	 */
-	public String getVrchol() {
+	public int getVrchol() {
 	    return vrchol;
 	}
 
@@ -156,55 +108,43 @@ public class SeznamSousednosti {
 	}
     }
 
-    /** Privatni trida reprezentujici graf. */
+    /**
+     * Privatni trida reprezentujici graf. Po nacteni se graf uz nemeni, takze
+     * nad nim muze soucasne bezet vice prohledavani.
+     */
     private class Graf {
-	/** Index prvku pro pole <code>vrcholy</code>. */
-	private int index = 0;
+	/** Slovnik klicu vrcholu. */
+	private final SlovnikVrcholu slovnik;
 	/** Pole vrcholu. */
 	private final Vrchol[] vrcholy;
 
-	//private final int start;
-
 	/**
-	 * Konstruktor grafu zajistujici inicializaci pole vrcholu. Zaroven pole
-	 * vrcholu naplni hodnotou <code>null</code>.
+	 * Konstruktor grafu zajistujici inicializaci pole vrcholu. Pro kazdy
+	 * klic ze slovniku vytvori vrchol bez sousedu.
 	 * 
-	 * @param start
-	 *            startovni velikost
+	 * @param slovnik
+	 *            slovnik klicu vrcholu
 	 */
-	public Graf(int start) {
-	    //this.start = start;
-	    this.vrcholy = new Vrchol[start];
+	public Graf(SlovnikVrcholu slovnik) {
+	    this.slovnik = slovnik;
+	    this.vrcholy = new Vrchol[slovnik.getPocet()];
 	    for (int index = 0; index < vrcholy.length; index++) {
-		vrcholy[index] = null;
+		vrcholy[index] = new Vrchol();
 	    }
 	}
 
-	/**
-	 * Pridani vrcholu tzn. zmena hodnoty <code>null</code> na objekt typu
-	 * Vrchol.
-	 * 
-	 * @param klic
-	 *            hodnota vrcholu
-	 */
-	public void addNode(String klic) {
-	    Vrchol tmp = new Vrchol(klic, FRESH);
-	    vrcholy[index++] = tmp;
-	}
-
 	/**
 	 * Pridani orientovane hrany grafu.
 	 * 
 	 * @param start
-	 *            startovni vrchol ze ktereho bude hrana vychazet
+	 *            cislo vrcholu ze ktereho bude hrana vychazet
 	 * @param end
-	 *            koncový vrchol do ktereho bude hrana prichazet
+	 *            cislo vrcholu do ktereho bude hrana prichazet
 	 */
-	public void addOriEdge(String start, String end) {
-	    int pozice = indexVrcholu(start);
+	public void addOriEdge(int start, int end) {
 	    Soused sou = new Soused(end);
-	    sou.setDalsi(vrcholy[pozice].getSousedi());
-	    vrcholy[pozice].setSousedi(sou);
+	    sou.setDalsi(vrcholy[start].getSousedi());
+	    vrcholy[start].setSousedi(sou);
 	}
 
 	/**
@@ -212,39 +152,46 @@ public class SeznamSousednosti {
 	 * koncový vrchol, je treba zajistit propojeni hrany v obou smerech.
 	 * 
 	 * @param start
-	 *            startovni vrchol ze ktereho bude hrana vychazet
+	 *            cislo vrcholu ze ktereho bude hrana vychazet
 	 * @param end
-	 *            koncový vrchol do ktereho bude hrana prichazet
+	 *            cislo vrcholu do ktereho bude hrana prichazet
 	 */
-	public void addNoriEdge(String start, String end) {
-	    int pozice = indexVrcholu(start);
+	public void addNoriEdge(int start, int end) {
 	    Soused sou1 = new Soused(end);
-	    sou1.setDalsi(vrcholy[pozice].getSousedi());
-	    vrcholy[pozice].setSousedi(sou1);
-	    pozice = indexVrcholu(end);
+	    sou1.setDalsi(vrcholy[start].getSousedi());
+	    vrcholy[start].setSousedi(sou1);
 	    Soused sou2 = new Soused(start);
-	    sou2.setDalsi(vrcholy[pozice].getSousedi());
-	    vrcholy[pozice].setSousedi(sou2);
+	    sou2.setDalsi(vrcholy[end].getSousedi());
+	    vrcholy[end].setSousedi(sou2);
 	}
 
 	/**
-	 * Nalezne podle klice v poli vrcholu prislusny objekt a vrati jeho
-	 * index v poli.
+	 * Nalezne podle klice ve slovniku index vrcholu v poli vrcholu.
 	 * 
 	 * @param klic
 	 *            klic objektu u kterého potřebujeme znát jeho index v poli
 	 *            vrcholů
-	 * @return pozice objektu v poli vrcholu
+	 * @return pozice objektu v poli vrcholu, nebo -1 pokud neexistuje
 	 */
 	public int indexVrcholu(String klic) {
-	    int pozice = -1;
-	    for (int index = 0; index < vrcholy.length; index++) {
-		if (vrcholy[index].getKlic().equals(klic)) {
-		    pozice = index;
-		    break;
-		}
+	    return slovnik.najdi(klic);
+	}
+
+	/**
+	 * Jeden krok prohledavani. Vybere vrchol z fronty (zasobniku), otevre
+	 * jeho dosud nenavstivene sousedy a vrchol uzavre.
+	 * 
+	 * @param stav
+	 *            stav prohledavani, fronta (zasobnik) nesmi byt prazdna
+	 * @return index zpracovaneho vrcholu
+	 */
+	public int krok(StavProhledavani stav) {
+	    int tmp = stav.vyber();
+	    for (Soused act = vrcholy[tmp].getSousedi(); act != null; act = act.getDalsi()) {
+		stav.otevri(act.getVrchol());
 	    }
-	    return pozice;
+	    stav.uzavri(tmp);
+	    return tmp;
 	}
 
 	/**
@@ -255,34 +202,11 @@ public class SeznamSousednosti {
 	 *            pocatecni index ze ktereho se zacne graf prohledavat
 	 * @param file
 	 *            <code>PrintWriter</code> pro tisknuti do souboru
+	 * @param kontrolniBod
+	 *            kontrolni body prohledavani
 	 */
-	public void BFS(String start, PrintWriter file) {
-	    int pozice = indexVrcholu(start);
-	    if (pozice == -1) {
-		System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
-		System.exit(1);
-	    }
-	    vrcholy[pozice].setStav(OPENED);
-	    Queue<Integer> fronta = new LinkedList<Integer>();
-	    fronta.add(pozice);
-	    while (!fronta.isEmpty()) {
-		int tmp = fronta.poll();
-		for (Soused act = vrcholy[tmp].getSousedi(); act != null; act = act.getDalsi()) {
-		    pozice = indexVrcholu(act.getVrchol());
-		    if (vrcholy[pozice].getStav() == FRESH) {
-			vrcholy[pozice].setStav(OPENED);
-			fronta.add(pozice);
-		    }
-		}
-		vrcholy[tmp].setStav(CLOSED);
-		if (!fronta.isEmpty()) {
-		    System.out.print(vrcholy[tmp] + ", ");
-		    file.print(vrcholy[tmp] + ", ");
-		} else {
-		    System.out.println(vrcholy[tmp]);
-		    file.println(vrcholy[tmp]);
-		}
-	    }
+	public void BFS(String start, PrintWriter file, KontrolniBod kontrolniBod) {
+	    prohledej(start, file, true, kontrolniBod);
 	}
 
 	/**
@@ -293,33 +217,45 @@ public class SeznamSousednosti {
 	 *            pocatecni index ze ktereho se zacne graf prohledavat
 	 * @param file
 	 *            <code>PrintWriter</code> pro tisknuti do souboru
+	 * @param kontrolniBod
+	 *            kontrolni body prohledavani
 	 */
-	public void DFS(String start, PrintWriter file) {
+	public void DFS(String start, PrintWriter file, KontrolniBod kontrolniBod) {
+	    prohledej(start, file, false, kontrolniBod);
+	}
+
+	/**
+	 * Spolecna cast BFS a DFS, ktere se lisi jen frontou a zasobnikem.
+	 * 
+	 * @param start
+	 *            pocatecni index ze ktereho se zacne graf prohledavat
+	 * @param file
+	 *            <code>PrintWriter</code> pro tisknuti do souboru
+	 * @param doSirky
+	 *            <code>true</code> pro BFS, <code>false</code> pro DFS
+	 * @param kontrolniBod
+	 *            kontrolni body prohledavani, ze kterych lze po preruseni
+	 *            pokracovat
+	 */
+	private void prohledej(String start, PrintWriter file, boolean doSirky, KontrolniBod kontrolniBod) {
 	    int pozice = indexVrcholu(start);
 	    if (pozice == -1) {
 		System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
 		System.exit(1);
 	    }
-	    vrcholy[pozice].setStav(OPENED);
-	    Stack<Integer> zasobnik = new Stack<Integer>();
-	    zasobnik.add(pozice);
-	    while (!zasobnik.isEmpty()) {
-		int tmp = zasobnik.pop();
-		for (Soused act = vrcholy[tmp].getSousedi(); act != null; act = act.getDalsi()) {
-		    pozice = indexVrcholu(act.getVrchol());
-		    if (vrcholy[pozice].getStav() == FRESH) {
-			vrcholy[pozice].setStav(OPENED);
-			zasobnik.add(pozice);
-		    }
-		}
-		vrcholy[tmp].setStav(CLOSED);
-		if (!zasobnik.isEmpty()) {
-		    System.out.print(vrcholy[tmp] + ", ");
-		    file.print(vrcholy[tmp] + ", ");
+	    StavProhledavani stav = new StavProhledavani(vrcholy.length);
+	    kontrolniBod.zacni(stav, pozice, doSirky);
+	    while (!stav.isPrazdny()) {
+		int tmp = krok(stav);
+		String klic = slovnik.getKlic(tmp) + " ";
+		if (!stav.isPrazdny()) {
+		    System.out.print(klic + ", ");
+		    file.print(klic + ", ");
 		} else {
-		    System.out.println(vrcholy[tmp]);
-		    file.println(vrcholy[tmp]);
+		    System.out.println(klic);
+		    file.println(klic);
 		}
+		kontrolniBod.zpracovan(stav, tmp);
 	    }
 	}
     }
@@ -333,40 +269,199 @@ public class SeznamSousednosti {
      *            orientovani grafu, variante a startovnim vrcholu
      */
     public void init(DataParser dataParser) {
-	LinkedList<String> hrany = dataParser.getHrany();
-	LinkedList<String> vrcholy = dataParser.getVrcholy();
-	boolean addOriEdge = dataParser.getAddOriEdge();
-	int varianta = dataParser.getVarianta();
-	String start = dataParser.getStart();
+	init(dataParser, dataParser.getVarianta());
+    }
 
-	Graf graf = new Graf(vrcholy.size());
-	while (!vrcholy.isEmpty()) {
-	    graf.addNode(vrcholy.poll());
-	}
+    /**
+     * Inicializacni metoda s explicitne zadanou variantou. Pouziva ji
+     * automaticka volba reprezentace, kdy se varianta ze vstupu (AUTO_BFS,
+     * AUTO_DFS) teprve prevadi na konkretni variantu <1, 2>. Varianta 12 je
+     * postupne prohledavani do sirky s omezenim (viz {@link Pruchod}).
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu a startovnim vrcholu
+     * @param varianta
+     *            varianta prohledavani, 1 pro BFS, 2 pro DFS, 12 pro
+     *            omezene BFS
+     */
+    public void init(DataParser dataParser, int varianta) {
+	String start = dataParser.getStart();
+	nacti(dataParser);
 
-	while (!hrany.isEmpty()) {
-	    String[] pole = hrany.poll().split("[=<>]+");
-	    if (addOriEdge) {
-		graf.addOriEdge(pole[0], pole[1]);
-	    } else {
-		graf.addNoriEdge(pole[0], pole[1]);
-	    }
-	}
+	KontrolniBod kontrolniBod = new KontrolniBod(dataParser, varianta);
 	PrintWriter file = null;
 	try {
-	    file = new PrintWriter(new FileWriter("vystup.txt"));
+	    file = kontrolniBod.otevriVystup();
 	} catch (IOException e) {
 	    e.printStackTrace();
 	}
 	if (varianta == 1) {
 	    System.out.print("\nBFS(" + start + "): ");
-	    file.print("BFS(" + start + "): ");
-	    graf.BFS(start, file);
+	    if (!kontrolniBod.isObnoveno()) {
+		file.print("BFS(" + start + "): ");
+	    }
+	    graf.BFS(start, file, kontrolniBod);
 	} else if (varianta == 2) {
 	    System.out.print("\nDFS(" + start + "): ");
-	    file.print("DFS(" + start + "): ");
-	    graf.DFS(start, file);
+	    if (!kontrolniBod.isObnoveno()) {
+		file.print("DFS(" + start + "): ");
+	    }
+	    graf.DFS(start, file, kontrolniBod);
+	} else if (varianta == 12) {
+	    omezeneBFS(start, file);
+	}
+	kontrolniBod.dokonceno();
+    }
+
+    /**
+     * Postupne prohledavani do sirky s omezenimi ze systemovych vlastnosti
+     * <code>hloubka</code> (nejvetsi hloubka), <code>limit</code> (pocet
+     * zpracovanych vrcholu) a <code>cil</code> (klic ciloveho vrcholu). U
+     * kazdeho vrcholu vypise i jeho hloubku.
+     * 
+     * @param start
+     *            klic startovniho vrcholu
+     * @param file
+     *            <code>PrintWriter</code> pro tisknuti do souboru
+     */
+    private void omezeneBFS(String start, PrintWriter file) {
+	String cil = System.getProperty("cil");
+	if (indexVrcholu(start) == -1 || (cil != null && indexVrcholu(cil) == -1)) {
+	    System.out.println("\nVrchol \"" + (indexVrcholu(start) == -1 ? start : cil)
+		    + "\" se nepodařilo najít!");
+	    System.exit(1);
+	}
+	Pruchod pruchod = new Pruchod(this, start, true);
+	if (Integer.getInteger("hloubka") != null) {
+	    pruchod.setMaxHloubka(Integer.getInteger("hloubka"));
+	}
+	if (Long.getLong("limit") != null) {
+	    pruchod.setLimit(Long.getLong("limit"));
+	}
+	if (cil != null) {
+	    pruchod.setCil(cil);
+	}
+	System.out.print("\nBFS(" + start + "): ");
+	file.print("BFS(" + start + "): ");
+	boolean prvni = true;
+	while (pruchod.hasNext()) {
+	    String vrchol = pruchod.next().toString();
+	    if (!prvni) {
+		vrchol = ", " + vrchol;
+	    }
+	    prvni = false;
+	    System.out.print(vrchol);
+	    file.print(vrchol);
+	}
+	System.out.println();
+	file.println();
+	System.out.println("Zpracovano " + pruchod.getZpracovano() + " z " + getPocetVrcholu() + " vrcholu");
+    }
+
+    /**
+     * Nacte graf z dataParseru bez prohledavani. Po nacteni lze graf
+     * prohledavat metodami {@link #prohledej(int, StavProhledavani, boolean)}
+     * a {@link #dosazitelny(int, int, StavProhledavani)} i z vice vlaken.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu
+     */
+    void nacti(DataParser dataParser) {
+	int[] hrany = dataParser.getHrany();
+	boolean addOriEdge = dataParser.getAddOriEdge();
+
+	graf = new Graf(dataParser.getVrcholy());
+	for (int index = 0; index < dataParser.getPocetHran(); index++) {
+	    if (addOriEdge) {
+		graf.addOriEdge(hrany[2 * index], hrany[2 * index + 1]);
+	    } else {
+		graf.addNoriEdge(hrany[2 * index], hrany[2 * index + 1]);
+	    }
+	}
+    }
+
+    /**
+     * Getr poctu vrcholu nacteneho grafu.
+     * 
+     * @return pocet vrcholu
+     */
+    int getPocetVrcholu() {
+	return graf.vrcholy.length;
+    }
+
+    /**
+     * Nalezne index vrcholu podle klice.
+     * 
+     * @param klic
+     *            klic vrcholu
+     * @return index vrcholu, nebo -1 pokud vrchol neexistuje
+     */
+    int indexVrcholu(String klic) {
+	return graf.indexVrcholu(klic);
+    }
+
+    /**
+     * Getr klice vrcholu.
+     * 
+     * @param index
+     *            index vrcholu
+     * @return klic vrcholu
+     */
+    String getKlic(int index) {
+	return graf.slovnik.getKlic(index);
+    }
+
+    /**
+     * Jeden krok prohledavani nacteneho grafu.
+     * 
+     * @param stav
+     *            stav prohledavani, fronta (zasobnik) nesmi byt prazdna
+     * @return index zpracovaneho vrcholu
+     */
+    int krok(StavProhledavani stav) {
+	return graf.krok(stav);
+    }
+
+    /**
+     * Projde cely graf z daneho vrcholu bez vypisu.
+     * 
+     * @param start
+     *            index startovniho vrcholu
+     * @param stav
+     *            stav prohledavani, ktery patri jen tomuto prohledavani
+     * @param doSirky
+     *            <code>true</code> pro BFS, <code>false</code> pro DFS
+     * @return pocet navstivenych vrcholu
+     */
+    int prohledej(int start, StavProhledavani stav, boolean doSirky) {
+	int pocet = 0;
+	stav.zacni(start, doSirky);
+	while (!stav.isPrazdny()) {
+	    graf.krok(stav);
+	    pocet++;
+	}
+	return pocet;
+    }
+
+    /**
+     * Zjisti, zda je cilovy vrchol dosazitelny ze startovniho. Prohledava do
+     * sirky a skonci hned, jak cil otevre.
+     * 
+     * @param start
+     *            index startovniho vrcholu
+     * @param cil
+     *            index ciloveho vrcholu
+     * @param stav
+     *            stav prohledavani, ktery patri jen tomuto prohledavani
+     * @return <code>true</code> pokud je cil dosazitelny
+     */
+    boolean dosazitelny(int start, int cil, StavProhledavani stav) {
+	stav.zacni(start, true);
+	while (!stav.isPrazdny() && stav.getStav(cil) == StavProhledavani.FRESH) {
+	    graf.krok(stav);
 	}
-	file.close();
+	return stav.getStav(cil) != StavProhledavani.FRESH;
     }
 }
\ No newline at end of file
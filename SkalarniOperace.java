@@ -0,0 +1,54 @@
+package semestralka;
+
+/**
+ * Skalarni implementace operaci nad bitovymi vektory. Pouziva se, pokud neni
+ * k dispozici modul <code>jdk.incubator.vector</code>.
+ * 
+ * @author Martin Zlamal
+ */
+class SkalarniOperace implements BitoveOperace {
+
+    /* (non-Javadoc)
+     * @see semestralka.BitoveOperace#or(long[], long[])
+     */
+    @Override
+    public void or(long[] cil, long[] zdroj) {
+	for (int index = 0; index < cil.length; index++) {
+	    cil[index] |= zdroj[index];
+	}
+    }
+
+    /* (non-Javadoc)
+     * @see semestralka.BitoveOperace#andNot(long[], long[])
+     */
+    @Override
+    public int andNot(long[] cil, long[] maska) {
+	int pocet = 0;
+	for (int index = 0; index < cil.length; index++) {
+	    cil[index] &= ~maska[index];
+	    pocet += Long.bitCount(cil[index]);
+	}
+	return pocet;
+    }
+
+    /* (non-Javadoc)
+     * @see semestralka.BitoveOperace#prunik(long[], long[])
+     */
+    @Override
+    public boolean prunik(long[] a, long[] b) {
+	for (int index = 0; index < a.length; index++) {
+	    if ((a[index] & b[index]) != 0) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /* (non-Javadoc)
+     * @see semestralka.BitoveOperace#getNazev()
+     */
+    @Override
+    public String getNazev() {
+	return "skalarni";
+    }
+}
\ No newline at end of file
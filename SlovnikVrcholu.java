@@ -0,0 +1,514 @@
+package semestralka;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Kompaktni slovnik klicu vrcholu. Klice dostavaji cisla 0, 1, 2, ... v
+ * poradi pridani a vsechny jsou ulozeny za sebou v jednom poli bajtu v
+ * kodovani UTF-8. Na text se cislo prevadi az pri vypisu.
+ * 
+ * Klice jsou ulozeny po blocich po {@value #BLOK}. Prvni klic bloku je
+ * ulozen cely, u dalsich se uklada jen cast, ktera se lisi od predchoziho
+ * klice (front coding), a to jen tehdy, kdyz je spolecna predpona dlouha
+ * aspon {@value #MIN_PREDPONA} bajty, tedy kdyz to skutecne misto usetri.
+ * Zaznam klice je <code>hlavicka [predpona] pripona</code>, kde hlavicka je
+ * <code>delka pripony * 2 + (ma predponu ? 1 : 0)</code> a cisla jsou
+ * ulozena s promennou delkou (7 bitu na bajt). Pro kazdy blok se pamatuje
+ * jen pozice jeho zacatku.
+ * 
+ * Pro hledani cisla podle klice slouzi hashovaci tabulka s otevrenou
+ * adresaci. Polozka je cislo klice + 1 (<code>int</code>) a k ni jeden bajt
+ * hashe klice (otisk), tedy 5 bajtu na slot misto 8 pro cely hash s cislem.
+ * Otisk odmitne 255 z 256 neshodnych polozek bez dekodovani klice, zbytek
+ * se porovna az po dekodovani. Pri zvetseni tabulky se klice dekoduji
+ * postupne za sebou a hashuji znovu.
+ * 
+ * Slovnik zapsany metodou {@link #zapis(DataOutputStream)} lze metodou
+ * {@link #mapuj(FileChannel, long)} pouzit primo ze souboru pres
+ * <code>FileChannel.map</code>, takze se nacita jen to, co se skutecne
+ * hleda nebo vypisuje. Nove klice se pak ukladaji do pameti za klice
+ * souboru. Proto jsou pole ulozena v bufferech, tabulka ma nejvyse
+ * {@value #MAX_TABULKA} slotu (vejde se do jednoho namapovaneho useku) a
+ * slovnik tak pojme nejvyse tri ctvrtiny tohoto poctu klicu.
+ * 
+ * @author Martin Zlamal
+ */
+public class SlovnikVrcholu {
+    /** Pocet klicu v jednom bloku. */
+    static final int BLOK = 16;
+    /** Nejkratsi spolecna predpona, ktera se vyplati ukladat. */
+    static final int MIN_PREDPONA = 2;
+    /** Nejvetsi velikost pole <code>arena</code>. */
+    private static final int MAX_ARENA = Integer.MAX_VALUE - 8;
+    /** Nejvetsi velikost hashovaci tabulky. */
+    private static final int MAX_TABULKA = 1 << 29;
+
+    /** Zaznamy klicu. */
+    private ByteBuffer arena = ByteBuffer.allocate(1024);
+    /** Pocet pouzitych bajtu v poli <code>arena</code>. */
+    private int delka = 0;
+    /** Pozice zacatku jednotlivych bloku v poli <code>arena</code>. */
+    private IntBuffer bloky = IntBuffer.allocate(16);
+    /** Hashovaci tabulka, polozka je cislo klice + 1, 0 je volny slot. */
+    private IntBuffer tabulka = IntBuffer.allocate(16);
+    /** Otisky klicu v tabulce, horni bajt hashe. */
+    private ByteBuffer otisky = ByteBuffer.allocate(16);
+    /** Pocet klicu. */
+    private int pocet = 0;
+    /** Posledni pridany klic, vuci kteremu se pocita predpona. */
+    private byte[] posledni = new byte[0];
+    /** Delka nejdelsiho klice v bajtech. */
+    private int maxDelka = 0;
+    /** Buffer pro dekodovani klicu, kazde vlakno ma vlastni. */
+    private final ThreadLocal<byte[]> buffery = new ThreadLocal<byte[]>();
+    /** Namapovany slovnik, jehoz klice predchazi klicum tohoto, nebo null. */
+    private SlovnikVrcholu zaklad = null;
+    /** Pocet klicu zakladu, vlastni klice maji cisla od tohoto. */
+    private int posun = 0;
+
+    /**
+     * Getr poctu klicu.
+     * 
+     * @return pocet klicu ve slovniku
+     */
+    public int getPocet() {
+	return posun + pocet;
+    }
+
+    /**
+     * Getr velikosti slovniku v pameti.
+     * 
+     * @return priblizny pocet bajtu zabranych poli slovniku
+     */
+    public long getVelikost() {
+	return arena.capacity() + 4L * bloky.capacity() + 5L * tabulka.capacity();
+    }
+
+    /**
+     * Prida klic do slovniku, pokud v nem jeste neni.
+     * 
+     * @param klic
+     *            klic vrcholu
+     * @return cislo klice
+     */
+    public int pridej(String klic) {
+	byte[] bajty = klic.getBytes(StandardCharsets.UTF_8);
+	int hash = hash(bajty, bajty.length);
+	if (zaklad != null) {
+	    int id = zaklad.hledej(bajty, hash);
+	    if (id != -1) {
+		return id;
+	    }
+	}
+	int slot = najdiSlot(bajty, hash);
+	if (tabulka.get(slot) != 0) {
+	    return posun + tabulka.get(slot) - 1;
+	}
+	int id = pocet;
+	zapisKlic(id, bajty);
+	pocet++;
+	tabulka.put(slot, id + 1);
+	otisky.put(slot, (byte) (hash >>> 24));
+	if (pocet * 4L > tabulka.capacity() * 3L) {
+	    zvetsiTabulku();
+	}
+	return posun + id;
+    }
+
+    /**
+     * Nalezne cislo klice.
+     * 
+     * @param klic
+     *            klic vrcholu
+     * @return cislo klice, nebo -1 pokud klic ve slovniku neni
+     */
+    public int najdi(String klic) {
+	byte[] bajty = klic.getBytes(StandardCharsets.UTF_8);
+	int hash = hash(bajty, bajty.length);
+	if (zaklad != null) {
+	    int id = zaklad.hledej(bajty, hash);
+	    if (id != -1) {
+		return id;
+	    }
+	}
+	return hledej(bajty, hash);
+    }
+
+    /**
+     * Prevede cislo klice zpet na text.
+     * 
+     * @param id
+     *            cislo klice
+     * @return klic vrcholu
+     */
+    public String getKlic(int id) {
+	if (id < posun) {
+	    return zaklad.getKlic(id);
+	}
+	byte[] buffer = buffer();
+	int n = dekoduj(id - posun, buffer);
+	return new String(buffer, 0, n, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Zapise cely slovnik do proudu. Pole se zapisuji tak, jak jsou, takze
+     * se pri cteni klice znovu nekoduji ani nehashuji. Slovnik nad
+     * namapovanym zakladem se nejdriv slouci do jednoho slovniku v pameti.
+     * 
+     * @param out
+     *            vystupni proud
+     * @throws IOException
+     *             pri chybe zapisu
+     */
+    public void zapis(DataOutputStream out) throws IOException {
+	if (zaklad != null) {
+	    SlovnikVrcholu slouceny = zaklad.kopie();
+	    for (int id = posun; id < getPocet(); id++) {
+		slouceny.pridej(getKlic(id));
+	    }
+	    slouceny.zapis(out);
+	    return;
+	}
+	int pocetBloku = (pocet + BLOK - 1) / BLOK;
+	out.writeInt(pocet);
+	out.writeInt(maxDelka);
+	out.writeInt(delka);
+	out.write(arena.array(), 0, delka);
+	ByteBuffer buffer = ByteBuffer.allocate(4 * pocetBloku);
+	buffer.asIntBuffer().put(bloky.array(), 0, pocetBloku);
+	out.write(buffer.array());
+	out.writeInt(tabulka.capacity());
+	buffer = ByteBuffer.allocate(4 * tabulka.capacity());
+	buffer.asIntBuffer().put(tabulka.array());
+	out.write(buffer.array());
+	out.write(otisky.array());
+	out.writeInt(posledni.length);
+	out.write(posledni);
+    }
+
+    /**
+     * Zpristupni slovnik zapsany metodou {@link #zapis(DataOutputStream)}
+     * primo ze souboru. Klice souboru se ctou z namapovanych useku az pri
+     * hledani nebo vypisu. Do vraceneho slovniku lze dal pridavat klice,
+     * ktere dostanou dalsi cisla a ukladaji se do pameti.
+     * 
+     * @param kanal
+     *            kanal souboru, po namapovani ho lze zavrit
+     * @param pozice
+     *            pozice zacatku slovniku v souboru
+     * @return slovnik nad namapovanym souborem
+     * @throws IOException
+     *             pri chybe cteni nebo poskozenem souboru
+     */
+    public static SlovnikVrcholu mapuj(FileChannel kanal, long pozice) throws IOException {
+	SlovnikVrcholu zaklad = new SlovnikVrcholu();
+	ByteBuffer hlavicka = usek(kanal, pozice, 12);
+	zaklad.pocet = hlavicka.getInt(0);
+	zaklad.maxDelka = hlavicka.getInt(4);
+	zaklad.delka = hlavicka.getInt(8);
+	pozice += 12;
+	zaklad.arena = usek(kanal, pozice, zaklad.delka);
+	pozice += zaklad.delka;
+	int pocetBloku = (zaklad.pocet + BLOK - 1) / BLOK;
+	zaklad.bloky = usek(kanal, pozice, 4L * pocetBloku).asIntBuffer();
+	pozice += 4L * pocetBloku;
+	int velikost = usek(kanal, pozice, 4).getInt(0);
+	if (velikost <= 0 || velikost > MAX_TABULKA || Integer.bitCount(velikost) != 1) {
+	    throw new IOException("poskozeny slovnik");
+	}
+	pozice += 4;
+	zaklad.tabulka = usek(kanal, pozice, 4L * velikost).asIntBuffer();
+	pozice += 4L * velikost;
+	zaklad.otisky = usek(kanal, pozice, velikost);
+	pozice += velikost;
+	zaklad.posledni = new byte[usek(kanal, pozice, 4).getInt(0)];
+	usek(kanal, pozice + 4, zaklad.posledni.length).get(zaklad.posledni);
+
+	SlovnikVrcholu slovnik = new SlovnikVrcholu();
+	slovnik.zaklad = zaklad;
+	slovnik.posun = zaklad.pocet;
+	slovnik.maxDelka = zaklad.maxDelka;
+	return slovnik;
+    }
+
+    /**
+     * Namapuje usek souboru pro cteni.
+     * 
+     * @param kanal
+     *            kanal souboru
+     * @param pozice
+     *            pozice zacatku useku
+     * @param velikost
+     *            velikost useku v bajtech
+     * @return namapovany usek
+     * @throws IOException
+     *             pokud usek presahuje konec souboru
+     */
+    private static ByteBuffer usek(FileChannel kanal, long pozice, long velikost) throws IOException {
+	if (velikost < 0 || velikost > Integer.MAX_VALUE || pozice + velikost > kanal.size()) {
+	    throw new IOException("poskozeny slovnik");
+	}
+	return kanal.map(FileChannel.MapMode.READ_ONLY, pozice, velikost);
+    }
+
+    /**
+     * Zkopiruje slovnik do pameti, aby do nej slo pridavat. Pouziva se pro
+     * namapovany zaklad pri zapisu slouceneho slovniku.
+     * 
+     * @return kopie slovniku v pameti
+     */
+    private SlovnikVrcholu kopie() {
+	SlovnikVrcholu kopie = new SlovnikVrcholu();
+	kopie.arena = ByteBuffer.allocate(Math.max(1024, delka));
+	kopie.arena.put(0, arena, 0, delka);
+	kopie.delka = delka;
+	int pocetBloku = (pocet + BLOK - 1) / BLOK;
+	kopie.bloky = IntBuffer.allocate(Math.max(16, pocetBloku + 1));
+	kopie.bloky.put(0, bloky, 0, pocetBloku);
+	kopie.tabulka = IntBuffer.allocate(tabulka.capacity());
+	kopie.tabulka.put(0, tabulka, 0, tabulka.capacity());
+	kopie.otisky = ByteBuffer.allocate(otisky.capacity());
+	kopie.otisky.put(0, otisky, 0, otisky.capacity());
+	kopie.pocet = pocet;
+	kopie.posledni = posledni;
+	kopie.maxDelka = maxDelka;
+	return kopie;
+    }
+
+    /**
+     * Nalezne cislo klice mezi vlastnimi klici slovniku.
+     * 
+     * @param bajty
+     *            klic v UTF-8
+     * @param hash
+     *            hash klice
+     * @return cislo klice, nebo -1 pokud klic ve slovniku neni
+     */
+    private int hledej(byte[] bajty, int hash) {
+	int polozka = tabulka.get(najdiSlot(bajty, hash));
+	return polozka == 0 ? -1 : posun + polozka - 1;
+    }
+
+    /**
+     * Zapise zaznam noveho klice na konec pole <code>arena</code>.
+     * 
+     * @param id
+     *            cislo klice
+     * @param bajty
+     *            klic v UTF-8
+     */
+    private void zapisKlic(int id, byte[] bajty) {
+	int predpona = 0;
+	if (id % BLOK == 0) {
+	    if (id / BLOK == bloky.capacity()) {
+		IntBuffer nove = IntBuffer.allocate(bloky.capacity() * 2);
+		nove.put(0, bloky, 0, bloky.capacity());
+		bloky = nove;
+	    }
+	    bloky.put(id / BLOK, delka);
+	} else {
+	    int max = Math.min(bajty.length, posledni.length);
+	    while (predpona < max && bajty[predpona] == posledni[predpona]) {
+		predpona++;
+	    }
+	    if (predpona < MIN_PREDPONA) {
+		predpona = 0;
+	    }
+	}
+	int pripona = bajty.length - predpona;
+	long potreba = (long) delka + pripona + 10;
+	if (potreba > arena.capacity()) {
+	    if (potreba > MAX_ARENA) {
+		throw new IllegalStateException("Klice vrcholu se nevejdou do " + MAX_ARENA + " B!");
+	    }
+	    ByteBuffer nova = ByteBuffer.allocate((int) Math.min(MAX_ARENA, Math.max(2L * arena.capacity(), potreba)));
+	    nova.put(0, arena, 0, delka);
+	    arena = nova;
+	}
+	zapisCislo(pripona * 2L + (predpona > 0 ? 1 : 0));
+	if (predpona > 0) {
+	    zapisCislo(predpona);
+	}
+	arena.put(delka, bajty, predpona, pripona);
+	delka += pripona;
+	posledni = bajty;
+	maxDelka = Math.max(maxDelka, bajty.length);
+    }
+
+    /**
+     * Zapise cislo s promennou delkou na konec pole <code>arena</code>.
+     * 
+     * @param cislo
+     *            nezaporne cislo
+     */
+    private void zapisCislo(long cislo) {
+	while ((cislo & ~0x7FL) != 0) {
+	    arena.put(delka++, (byte) ((cislo & 0x7F) | 0x80));
+	    cislo >>>= 7;
+	}
+	arena.put(delka++, (byte) cislo);
+    }
+
+    /**
+     * Dekoduje klic do bufferu. Zacne od zacatku bloku a postupne sklada
+     * predpony az ke klici s danym cislem.
+     * 
+     * @param id
+     *            cislo klice mezi vlastnimi klici
+     * @param buffer
+     *            buffer o velikosti aspon <code>maxDelka</code>
+     * @return delka klice v bajtech
+     */
+    private int dekoduj(int id, byte[] buffer) {
+	int pozice = bloky.get(id / BLOK);
+	long zaznam = 0;
+	for (int index = id - id % BLOK; index <= id; index++) {
+	    zaznam = zaznam(pozice, buffer);
+	    pozice = (int) (zaznam >>> 32);
+	}
+	return (int) zaznam;
+    }
+
+    /**
+     * Dekoduje jeden zaznam klice. Predpona klice uz musi byt v bufferu z
+     * predchoziho klice, za ni se zkopiruje pripona.
+     * 
+     * @param pozice
+     *            pozice zaznamu v poli <code>arena</code>
+     * @param buffer
+     *            buffer o velikosti aspon <code>maxDelka</code>
+     * @return pozice dalsiho zaznamu v hornich 32 bitech a delka klice v
+     *         dolnich
+     */
+    private long zaznam(int pozice, byte[] buffer) {
+	long hlavicka = 0;
+	int bity = 0;
+	byte b;
+	do {
+	    b = arena.get(pozice++);
+	    hlavicka |= (long) (b & 0x7F) << bity;
+	    bity += 7;
+	} while (b < 0);
+	int predpona = 0;
+	if ((hlavicka & 1) != 0) {
+	    bity = 0;
+	    do {
+		b = arena.get(pozice++);
+		predpona |= (b & 0x7F) << bity;
+		bity += 7;
+	    } while (b < 0);
+	}
+	int pripona = (int) (hlavicka >>> 1);
+	arena.get(pozice, buffer, predpona, pripona);
+	return (long) (pozice + pripona) << 32 | (predpona + pripona);
+    }
+
+    /**
+     * Vrati buffer pro dekodovani klicu aktualniho vlakna. Buffer se
+     * pouziva znovu a zvetsi se jen kvuli delsimu klici.
+     * 
+     * @return buffer o velikosti aspon <code>maxDelka</code>
+     */
+    private byte[] buffer() {
+	byte[] buffer = buffery.get();
+	if (buffer == null || buffer.length < maxDelka) {
+	    buffer = new byte[Math.max(64, maxDelka)];
+	    buffery.set(buffer);
+	}
+	return buffer;
+    }
+
+    /**
+     * Nalezne slot tabulky s danym klicem, pripadne prvni volny slot, kam
+     * by klic patril.
+     * 
+     * @param bajty
+     *            klic v UTF-8
+     * @param hash
+     *            hash klice
+     * @return index slotu v tabulce
+     */
+    private int najdiSlot(byte[] bajty, int hash) {
+	int maska = tabulka.capacity() - 1;
+	byte otisk = (byte) (hash >>> 24);
+	byte[] buffer = null;
+	for (int slot = rozptyl(hash) & maska;; slot = (slot + 1) & maska) {
+	    int polozka = tabulka.get(slot);
+	    if (polozka == 0) {
+		return slot;
+	    }
+	    if (otisky.get(slot) == otisk) {
+		if (buffer == null) {
+		    buffer = buffer();
+		}
+		int n = dekoduj(polozka - 1, buffer);
+		if (n == bajty.length && Arrays.equals(bajty, 0, n, buffer, 0, n)) {
+		    return slot;
+		}
+	    }
+	}
+    }
+
+    /**
+     * Zdvojnasobi hashovaci tabulku. Klice se dekoduji postupne za sebou,
+     * kazdy zaznam tedy jen jednou, a hashuji se znovu.
+     */
+    private void zvetsiTabulku() {
+	if (tabulka.capacity() == MAX_TABULKA) {
+	    throw new IllegalStateException("Slovnik vrcholu nepojme vic nez " + getPocet() + " klicu!");
+	}
+	tabulka = IntBuffer.allocate(tabulka.capacity() * 2);
+	otisky = ByteBuffer.allocate(tabulka.capacity());
+	int maska = tabulka.capacity() - 1;
+	byte[] buffer = buffer();
+	int pozice = 0;
+	for (int id = 0; id < pocet; id++) {
+	    long zaznam = zaznam(pozice, buffer);
+	    pozice = (int) (zaznam >>> 32);
+	    int hash = hash(buffer, (int) zaznam);
+	    int slot = rozptyl(hash) & maska;
+	    while (tabulka.get(slot) != 0) {
+		slot = (slot + 1) & maska;
+	    }
+	    tabulka.put(slot, id + 1);
+	    otisky.put(slot, (byte) (hash >>> 24));
+	}
+    }
+
+    /**
+     * Hash klice (FNV-1a).
+     * 
+     * @param bajty
+     *            klic v UTF-8
+     * @param delka
+     *            delka klice v bajtech
+     * @return hash klice
+     */
+    private static int hash(byte[] bajty, int delka) {
+	int h = 0x811C9DC5;
+	for (int index = 0; index < delka; index++) {
+	    h = (h ^ (bajty[index] & 0xFF)) * 0x01000193;
+	}
+	return h;
+    }
+
+    /**
+     * Promicha bity hashe, aby se vyuzily i horni bity pri maskovani.
+     * 
+     * @param hash
+     *            hash klice
+     * @return promichany hash
+     */
+    private static int rozptyl(int hash) {
+	hash ^= hash >>> 16;
+	hash *= 0x85EBCA6B;
+	hash ^= hash >>> 13;
+	return hash;
+    }
+}
\ No newline at end of file
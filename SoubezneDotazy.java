@@ -0,0 +1,180 @@
+package semestralka;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Soubezne dotazy nad jednim nactenym grafem. Graf se nacte jednou do
+ * seznamu sousednosti a pak nad nim bezi mnoho dotazu (BFS, DFS a
+ * dosazitelnost mezi dvema vrcholy) najednou, kazdy ve vlastnim vlakne.
+ * Stav prohledavani si dotazy pujcuji ze sdileneho zasobniku
+ * {@link StavProhledavani}, takze se pole stavu a fronty nealokuji pro kazdy
+ * dotaz znovu.
+ * 
+ * Na JVM 21 a novejsim se pouzivaji virtualni vlakna, na starsich JVM pevny
+ * pocet vlaken podle poctu procesoru. Soucasne bezi nejvyse tolik dotazu,
+ * kolik je povolenek semaforu (systemova vlastnost <code>soubezne</code>,
+ * vychozi hodnota je pocet procesoru), takze stavu prohledavani nikdy neni
+ * vic nez povolenek. Pocet dotazu se nastavuje systemovou vlastnosti
+ * <code>dotazy</code> (vychozi hodnota 10000). Startovni a cilove vrcholy se
+ * losuji, startovni vrchol ze vstupu je startem prvniho dotazu. Latence
+ * dotazu se meri od jeho zadani exekutoru, zahrnuje tedy i cekani ve fronte
+ * a na povolenku.
+ * 
+ * @author Martin Zlamal
+ */
+public class SoubezneDotazy {
+    /** Vychozi pocet dotazu. */
+    private static final int DOTAZY = 10000;
+    /** Seminko generatoru nahodnych cisel, aby byl beh opakovatelny. */
+    private static final long SEMINKO = 42;
+    /** Nazvy druhu dotazu pro vypis. */
+    private static final String[] DRUHY = { "BFS", "DFS", "dosazitelnost" };
+
+    /** Nacteny graf sdileny vsemi dotazy. */
+    private final SeznamSousednosti graf = new SeznamSousednosti();
+    /** Zasobnik volnych stavu prohledavani. */
+    private final ConcurrentLinkedQueue<StavProhledavani> bazen = new ConcurrentLinkedQueue<StavProhledavani>();
+    /** Pocet vytvorenych stavu prohledavani. */
+    private final AtomicLong vytvorenych = new AtomicLong();
+
+    /**
+     * Inicializacni metoda zajistujici nacteni grafu, spusteni dotazu a vypis
+     * vysledku.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu a startovnim vrcholu
+     */
+    public void init(DataParser dataParser) {
+	String start = dataParser.getStart();
+	graf.nacti(dataParser);
+	int pozice = graf.indexVrcholu(start);
+	if (pozice == -1) {
+	    System.out.println("\nVrchol \"" + start + "\" se nepodařilo najít!");
+	    System.exit(1);
+	}
+
+	int pocet = Math.max(1, Integer.getInteger("dotazy", DOTAZY));
+	int n = graf.getPocetVrcholu();
+	Random random = new Random(SEMINKO);
+	final int[] druhy = new int[pocet];
+	final int[] starty = new int[pocet];
+	final int[] cile = new int[pocet];
+	for (int index = 0; index < pocet; index++) {
+	    druhy[index] = random.nextInt(DRUHY.length);
+	    starty[index] = index == 0 ? pozice : random.nextInt(n);
+	    cile[index] = random.nextInt(n);
+	}
+	final long[] latence = new long[pocet];
+	final int soubezne = Math.max(1,
+		Integer.getInteger("soubezne", Runtime.getRuntime().availableProcessors()));
+	final Semaphore povolenky = new Semaphore(soubezne, true);
+	final long[] vysledky = new long[DRUHY.length];
+	final AtomicLong[] soucty = new AtomicLong[DRUHY.length];
+	for (int index = 0; index < DRUHY.length; index++) {
+	    soucty[index] = new AtomicLong();
+	}
+
+	ExecutorService exekutor = vytvorExekutor();
+	long zacatek = System.nanoTime();
+	for (int index = 0; index < pocet; index++) {
+	    final int dotaz = index;
+	    final long zadano = System.nanoTime();
+	    exekutor.execute(new Runnable() {
+		@Override
+		public void run() {
+		    povolenky.acquireUninterruptibly();
+		    StavProhledavani stav = pujcStav();
+		    long vysledek;
+		    if (druhy[dotaz] == 2) {
+			vysledek = graf.dosazitelny(starty[dotaz], cile[dotaz], stav) ? 1 : 0;
+		    } else {
+			vysledek = graf.prohledej(starty[dotaz], stav, druhy[dotaz] == 0);
+		    }
+		    bazen.offer(stav);
+		    povolenky.release();
+		    soucty[druhy[dotaz]].addAndGet(vysledek);
+		    latence[dotaz] = System.nanoTime() - zadano;
+		}
+	    });
+	}
+	exekutor.shutdown();
+	try {
+	    exekutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	} catch (InterruptedException e) {
+	    e.printStackTrace();
+	}
+	long trvani = System.nanoTime() - zacatek;
+	for (int index = 0; index < DRUHY.length; index++) {
+	    vysledky[index] = soucty[index].get();
+	}
+
+	int[] pocty = new int[DRUHY.length];
+	for (int index = 0; index < pocet; index++) {
+	    pocty[druhy[index]]++;
+	}
+	Arrays.sort(latence);
+	System.out.println("\nSoubezne dotazy nad grafem s " + n + " vrcholy");
+	System.out.println(String.format("  dotazu: %d (BFS %d, navstiveno celkem %d; DFS %d, navstiveno celkem %d;"
+		+ " dosazitelnost %d, dosazitelnych %d)", pocet, pocty[0], vysledky[0], pocty[1], vysledky[1],
+		pocty[2], vysledky[2]));
+	System.out.println("  vlakna: " + exekutor.getClass().getSimpleName() + ", soubeznych dotazu nejvyse "
+		+ soubezne + ", stavu prohledavani: " + vytvorenych.get());
+	System.out.println(String.format("  latence [us]: p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f",
+		percentil(latence, 50), percentil(latence, 90), percentil(latence, 99), percentil(latence, 99.9),
+		latence[pocet - 1] / 1e3));
+	System.out.println(String.format("  celkem %.1f ms, propustnost %.0f dotazu/s", trvani / 1e6,
+		pocet / (trvani / 1e9)));
+    }
+
+    /**
+     * Pujci volny stav prohledavani ze zasobniku, pripadne vytvori novy. Volat
+     * jen s povolenkou semaforu, novy stav tak vznikne nejvyse tolikrat,
+     * kolik je povolenek.
+     * 
+     * @return stav prohledavani pro jeden dotaz
+     */
+    private StavProhledavani pujcStav() {
+	StavProhledavani stav = bazen.poll();
+	if (stav == null) {
+	    stav = new StavProhledavani(graf.getPocetVrcholu());
+	    vytvorenych.incrementAndGet();
+	}
+	return stav;
+    }
+
+    /**
+     * Vrati percentil ze serazeneho pole latenci.
+     * 
+     * @param serazene
+     *            serazene latence v nanosekundach
+     * @param procent
+     *            percentil z intervalu (0, 100>
+     * @return percentil v mikrosekundach
+     */
+    private static double percentil(long[] serazene, double procent) {
+	int index = (int) Math.ceil(procent / 100 * serazene.length) - 1;
+	return serazene[Math.max(0, Math.min(index, serazene.length - 1))] / 1e3;
+    }
+
+    /**
+     * Vytvori exekutor s virtualnimi vlakny, pokud je JVM podporuje, jinak
+     * exekutor s pevnym poctem vlaken.
+     * 
+     * @return exekutor pro dotazy
+     */
+    private static ExecutorService vytvorExekutor() {
+	try {
+	    return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+	} catch (ReflectiveOperationException e) {
+	    return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+	}
+    }
+}
\ No newline at end of file
@@ -0,0 +1,296 @@
+package semestralka;
+
+import java.util.Arrays;
+
+/**
+ * Stav jednoho prohledavani grafu. Graf samotny je po nacteni nemenny a
+ * vsechen stav prohledavani (stavy a hloubky vrcholu a fronta nebo
+ * zasobnik) je ulozen zde, takze nad jednim grafem muze soucasne bezet vice
+ * prohledavani, kazde s vlastnim objektem stavu. Objekt lze po skonceni
+ * prohledavani znovu pouzit metodou {@link #zacni(int, boolean)}.
+ * 
+ * Kazdy vrchol se do fronty (zasobniku) vklada nejvyse jednou, proto staci
+ * pole o velikosti poctu vrcholu. Stav vrcholu plati jen tehdy, kdyz jeho
+ * znacka odpovida cislu aktualniho prohledavani. Nove prohledavani tak jen
+ * zvysi toto cislo a pole nemusi mazat, takze kratke prohledavani velkeho
+ * grafu stoji jen tolik, kolik vrcholu skutecne projde.
+ * 
+ * Pro kontrolni body ({@link KontrolniBod}) lze zapnout bitovou mnozinu
+ * navstivenych vrcholu, ktera se doplnuje pri otevirani vrcholu. Kopie
+ * mnoziny je pak jen kopii pole o velikosti poctu vrcholu / 64 a neprochazi
+ * stavy vsech vrcholu.
+ * 
+ * @author Martin Zlamal
+ */
+class StavProhledavani {
+    /** Hodnota jeste nenavstiveneho vrcholu. */
+    static final byte FRESH = 0;
+    /** Hodnota vrcholu navstiveneho, ne vsak uzavreneho. */
+    static final byte OPENED = 1;
+    /** Hodnota uzavreneho vrcholu. */
+    static final byte CLOSED = 2;
+
+    /** Stavy vrcholu, FRESH=0, OPENED=1, CLOSED=2. */
+    private final byte[] stavy;
+    /** Cislo prohledavani, ve kterem byl stav vrcholu naposledy zmenen. */
+    private final int[] znacky;
+    /** Hloubka vrcholu, tj. vzdalenost od startu ve strome prohledavani. */
+    private final int[] hloubky;
+    /** Fronta (BFS) nebo zasobnik (DFS) cisel vrcholu. */
+    private final int[] fronta;
+    /** Cislo aktualniho prohledavani. */
+    private int generace = 0;
+    /** Index prvniho prvku fronty. U zasobniku se nepouziva. */
+    private int hlava;
+    /** Index za poslednim prvkem fronty, resp. vrchol zasobniku. */
+    private int pata;
+    /** <code>true</code> pro prohledavani do sirky, jinak do hloubky. */
+    private boolean doSirky;
+    /** Naposledy vybrany vrchol, jehoz sousede se prave oteviraji. */
+    private int aktualni;
+    /** Nejvetsi hloubka, do ktere se vrcholy oteviraji. */
+    private int maxHloubka;
+    /**
+     * Bitova mnozina navstivenych vrcholu aktualniho prohledavani, nebo null
+     * pokud se nevede (viz {@link #sledujNavstivene()}).
+     */
+    private long[] navstivene;
+
+    /**
+     * Konstruktor stavu pro graf o danem poctu vrcholu.
+     * 
+     * @param pocetVrcholu
+     *            pocet vrcholu grafu
+     */
+    public StavProhledavani(int pocetVrcholu) {
+	this.stavy = new byte[pocetVrcholu];
+	this.znacky = new int[pocetVrcholu];
+	this.hloubky = new int[pocetVrcholu];
+	this.fronta = new int[pocetVrcholu];
+    }
+
+    /**
+     * Pripravi stav na nove prohledavani bez omezeni hloubky. Vsechny
+     * vrcholy budou FRESH a startovni vrchol se otevre s hloubkou 0.
+     * 
+     * @param start
+     *            cislo startovniho vrcholu
+     * @param doSirky
+     *            <code>true</code> pro BFS (fronta), <code>false</code> pro
+     *            DFS (zasobnik)
+     */
+    public void zacni(int start, boolean doSirky) {
+	if (++generace == 0) {
+	    Arrays.fill(znacky, 0);
+	    generace = 1;
+	}
+	this.doSirky = doSirky;
+	this.hlava = 0;
+	this.pata = 0;
+	this.aktualni = -1;
+	this.maxHloubka = Integer.MAX_VALUE;
+	if (navstivene != null) {
+	    Arrays.fill(navstivene, 0);
+	}
+	otevri(start);
+    }
+
+    /**
+     * Zapne vedeni bitove mnoziny navstivenych vrcholu. Volat pred
+     * {@link #zacni(int, boolean)}, resp.
+     * {@link #obnov(boolean, long[], int[], int[])}.
+     */
+    public void sledujNavstivene() {
+	if (navstivene == null) {
+	    navstivene = new long[(stavy.length + 63) >>> 6];
+	}
+    }
+
+    /**
+     * Setr nejvetsi hloubky. Vrcholy, ktere by mely vetsi hloubku, se
+     * neotevrou.
+     * 
+     * @param maxHloubka
+     *            nejvetsi hloubka, 0 znamena jen startovni vrchol
+     */
+    public void setMaxHloubka(int maxHloubka) {
+	this.maxHloubka = maxHloubka;
+    }
+
+    /**
+     * Getr velikosti stavu.
+     * 
+     * @return pocet vrcholu grafu, pro ktery byl stav vytvoren
+     */
+    public int getPocetVrcholu() {
+	return stavy.length;
+    }
+
+    /**
+     * Zjisti, zda je fronta (zasobnik) prazdna.
+     * 
+     * @return <code>true</code> pokud uz neni co zpracovat
+     */
+    public boolean isPrazdny() {
+	return hlava == pata;
+    }
+
+    /**
+     * Vybere dalsi vrchol ke zpracovani, u BFS ze zacatku fronty, u DFS z
+     * vrcholu zasobniku. Nasledne otevirani sousedu se vztahuje k tomuto
+     * vrcholu.
+     * 
+     * @return cislo vrcholu
+     */
+    public int vyber() {
+	aktualni = doSirky ? fronta[hlava++] : fronta[--pata];
+	return aktualni;
+    }
+
+    /**
+     * Otevre vrchol, pokud jeste nebyl navstiven a nepresahl by nejvetsi
+     * hloubku, a vlozi ho do fronty (zasobniku).
+     * 
+     * @param vrchol
+     *            cislo vrcholu
+     */
+    public void otevri(int vrchol) {
+	int hloubka = aktualni == -1 ? 0 : hloubky[aktualni] + 1;
+	if (getStav(vrchol) == FRESH && hloubka <= maxHloubka) {
+	    stavy[vrchol] = OPENED;
+	    znacky[vrchol] = generace;
+	    hloubky[vrchol] = hloubka;
+	    fronta[pata++] = vrchol;
+	    if (navstivene != null) {
+		navstivene[vrchol >>> 6] |= 1L << vrchol;
+	    }
+	}
+    }
+
+    /**
+     * Uzavre vrchol.
+     * 
+     * @param vrchol
+     *            cislo vrcholu
+     */
+    public void uzavri(int vrchol) {
+	stavy[vrchol] = CLOSED;
+	znacky[vrchol] = generace;
+    }
+
+    /**
+     * Getr stavu vrcholu.
+     * 
+     * @param vrchol
+     *            cislo vrcholu
+     * @return stav vrcholu, FRESH=0, OPENED=1, CLOSED=2
+     */
+    public int getStav(int vrchol) {
+	return znacky[vrchol] == generace ? stavy[vrchol] : FRESH;
+    }
+
+    /**
+     * Obnovi stav prohledavani ulozeny v kontrolnim bodu. Vsechny navstivene
+     * vrcholy budou uzavrene, vrcholy fronty (zasobniku) otevrene.
+     * 
+     * @param doSirky
+     *            <code>true</code> pro BFS (fronta), <code>false</code> pro
+     *            DFS (zasobnik)
+     * @param navstivene
+     *            bitova mnozina navstivenych vrcholu
+     * @param fronta
+     *            obsah fronty od zacatku, resp. zasobniku ode dna
+     * @param hloubkyFronty
+     *            hloubky vrcholu fronty (zasobniku)
+     */
+    public void obnov(boolean doSirky, long[] navstivene, int[] fronta, int[] hloubkyFronty) {
+	if (++generace == 0) {
+	    Arrays.fill(znacky, 0);
+	    generace = 1;
+	}
+	this.doSirky = doSirky;
+	this.aktualni = -1;
+	this.maxHloubka = Integer.MAX_VALUE;
+	for (int slovo = 0; slovo < navstivene.length; slovo++) {
+	    for (long bity = navstivene[slovo]; bity != 0; bity &= bity - 1) {
+		int vrchol = (slovo << 6) + Long.numberOfTrailingZeros(bity);
+		stavy[vrchol] = CLOSED;
+		znacky[vrchol] = generace;
+	    }
+	}
+	for (int index = 0; index < fronta.length; index++) {
+	    stavy[fronta[index]] = OPENED;
+	    hloubky[fronta[index]] = hloubkyFronty[index];
+	    this.fronta[index] = fronta[index];
+	}
+	this.hlava = 0;
+	this.pata = fronta.length;
+	if (this.navstivene != null) {
+	    System.arraycopy(navstivene, 0, this.navstivene, 0, navstivene.length);
+	}
+    }
+
+    /**
+     * Vrati bitovou mnozinu vsech navstivenych (otevrenych i uzavrenych)
+     * vrcholu. Pokud se mnozina vede, vrati jeji kopii, jinak ji sestavi
+     * z stavu vsech vrcholu.
+     * 
+     * @return bitova mnozina, vrchol <code>v</code> je bit
+     *         <code>v % 64</code> slova <code>v / 64</code>
+     */
+    public long[] getNavstivene() {
+	if (this.navstivene != null) {
+	    return this.navstivene.clone();
+	}
+	long[] navstivene = new long[(stavy.length + 63) >>> 6];
+	for (int vrchol = 0; vrchol < stavy.length; vrchol++) {
+	    if (znacky[vrchol] == generace && stavy[vrchol] != FRESH) {
+		navstivene[vrchol >>> 6] |= 1L << vrchol;
+	    }
+	}
+	return navstivene;
+    }
+
+    /**
+     * Vrati kopii obsahu fronty od zacatku, resp. zasobniku ode dna.
+     * 
+     * @return cisla vrcholu cekajicich na zpracovani
+     */
+    public int[] getFronta() {
+	return Arrays.copyOfRange(fronta, hlava, pata);
+    }
+
+    /**
+     * Vrati hloubky vrcholu fronty (zasobniku) ve stejnem poradi jako
+     * {@link #getFronta()}.
+     * 
+     * @return hloubky vrcholu cekajicich na zpracovani
+     */
+    public int[] getHloubkyFronty() {
+	int[] tmp = new int[pata - hlava];
+	for (int index = hlava; index < pata; index++) {
+	    tmp[index - hlava] = hloubky[fronta[index]];
+	}
+	return tmp;
+    }
+
+    /**
+     * Zjisti, zda jde o prohledavani do sirky.
+     * 
+     * @return <code>true</code> pro BFS, <code>false</code> pro DFS
+     */
+    public boolean isDoSirky() {
+	return doSirky;
+    }
+
+    /**
+     * Getr hloubky vrcholu. Plati jen pro vrcholy, ktere uz byly otevreny.
+     * 
+     * @param vrchol
+     *            cislo vrcholu
+     * @return vzdalenost od startu ve strome prohledavani
+     */
+    public int getHloubka(int vrchol) {
+	return hloubky[vrchol];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package semestralka;
+
+/**
+ * Automaticka volba reprezentace grafu. Po zpracovani vstupu prozkouma pocet
+ * vrcholu, hran a rozlozeni stupnu vrcholu a podle odhadu casove a pametove
+ * narocnosti zvoli bud seznam sousednosti, nebo matici sousednosti.
+ * 
+ * Odhad vychazi z toho, jak jsou obe reprezentace skutecne naprogramovane:
+ * obe vkladaji hranu v konstantnim case podle cisel vrcholu, seznam
+ * sousednosti pri prohledavani projde kazdou polozku seznamu jednou a matice
+ * se musi alokovat cela (V^2) a pri prohledavani cte kazdy radek cely (V^2).
+ * Klice vrcholu jsou pro obe reprezentace ve spolecnem slovniku, do odhadu
+ * pameti se proto nezapocitavaji.
+ * 
+ * @author Martin Zlamal
+ */
+public class VyberReprezentace {
+    /** Velikost reference v bajtech (predpoklad komprimovanych ukazatelu). */
+    private static final long REFERENCE = 4;
+    /** Velikost hlavicky objektu v bajtech. */
+    private static final long HLAVICKA = 12;
+    /** Cena prechodu na dalsi polozku seznamu vuci precteni bunky matice. */
+    private static final long SOUSED = 4;
+
+    /** Pocet vrcholu grafu. */
+    private long pocetVrcholu;
+    /** Pocet polozek sousednosti (u neorientovaneho grafu 2E). */
+    private long pocetSousedu;
+    /** Hustota grafu, tj. podil obsazenych bunek matice. */
+    private double hustota;
+    /** Minimalni vystupni stupen vrcholu. */
+    private int minStupen;
+    /** Maximalni vystupni stupen vrcholu. */
+    private int maxStupen;
+    /**
+     * Histogram stupnu. Prvek <code>i</code> obsahuje pocet vrcholu se
+     * stupnem z intervalu <2^(i-1), 2^i), prvek 0 pocet izolovanych vrcholu.
+     */
+    private final int[] histogram = new int[33];
+    /** Velikost slovniku klicu vrcholu v bajtech. */
+    private long pametSlovnik;
+    /** Odhad pameti pro seznam sousednosti v bajtech. */
+    private long pametSeznam;
+    /** Odhad pameti pro matici sousednosti v bajtech. */
+    private long pametMatice;
+    /** Odhad poctu elementarnich operaci pro seznam sousednosti. */
+    private double casSeznam;
+    /** Odhad poctu elementarnich operaci pro matici sousednosti. */
+    private double casMatice;
+    /** Vysledek volby, <code>true</code> pokud byla zvolena matice. */
+    private boolean matice;
+
+    /**
+     * Konstruktor, ktery rovnou provede analyzu grafu a volbu reprezentace.
+     * Data v dataParseru nijak nemeni.
+     * 
+     * @param dataParser
+     *            objekt dataParseru nesouci hrany, vrcholy a informace o
+     *            orientovani grafu
+     */
+    public VyberReprezentace(DataParser dataParser) {
+	int[] hrany = dataParser.getHrany();
+	boolean addOriEdge = dataParser.getAddOriEdge();
+
+	this.pocetVrcholu = dataParser.getVrcholy().getPocet();
+	this.pametSlovnik = dataParser.getVrcholy().getVelikost();
+	int[] stupne = new int[(int) pocetVrcholu];
+	for (int index = 0; index < dataParser.getPocetHran(); index++) {
+	    stupne[hrany[2 * index]]++;
+	    if (!addOriEdge) {
+		stupne[hrany[2 * index + 1]]++;
+	    }
+	}
+	this.minStupen = stupne.length == 0 ? 0 : Integer.MAX_VALUE;
+	for (int stupen : stupne) {
+	    pocetSousedu += stupen;
+	    minStupen = Math.min(minStupen, stupen);
+	    maxStupen = Math.max(maxStupen, stupen);
+	    histogram[32 - Integer.numberOfLeadingZeros(stupen)]++;
+	}
+	long v = pocetVrcholu;
+	this.hustota = v == 0 ? 0 : (double) pocetSousedu / ((double) v * v);
+
+	this.pametSeznam = v * (HLAVICKA + REFERENCE + REFERENCE) + HLAVICKA
+		+ pocetSousedu * (HLAVICKA + 4 + REFERENCE);
+	this.pametMatice = v * (HLAVICKA + 4 + v * REFERENCE);
+
+	long e = dataParser.getPocetHran();
+	this.casSeznam = (double) e + (double) pocetSousedu * SOUSED + v;
+	this.casMatice = (double) e + 2.0 * v * v;
+
+	Runtime runtime = Runtime.getRuntime();
+	long volno = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+	if (pametMatice > volno && pametSeznam <= volno) {
+	    this.matice = false;
+	} else if (pametSeznam > volno && pametMatice <= volno) {
+	    this.matice = true;
+	} else {
+	    this.matice = casMatice < casSeznam;
+	}
+    }
+
+    /**
+     * Getr vysledku volby.
+     * 
+     * @return <code>true</code> pokud byla zvolena matice sousednosti
+     */
+    public boolean isMatice() {
+	return this.matice;
+    }
+
+    /**
+     * Prevede automatickou variantu (5 = AUTO_BFS, 6 = AUTO_DFS) na
+     * konkretni variantu zvolene reprezentace.
+     * 
+     * @param varianta
+     *            varianta ze vstupu, 5 nebo 6
+     * @return varianta z intervalu <1, 4>
+     */
+    public int getVarianta(int varianta) {
+	int bfs = varianta == 5 ? 1 : 2;
+	return matice ? bfs + 2 : bfs;
+    }
+
+    /**
+     * Spusti prohledavani zvolenou reprezentaci.
+     * 
+     * @param dataParser
+     *            objekt dataParseru, ze ktereho byl vyber proveden
+     */
+    public void init(DataParser dataParser) {
+	int varianta = getVarianta(dataParser.getVarianta());
+	if (matice) {
+	    MaticeSousednosti tmp = new MaticeSousednosti();
+	    tmp.init(dataParser, varianta);
+	} else {
+	    SeznamSousednosti tmp = new SeznamSousednosti();
+	    tmp.init(dataParser, varianta);
+	}
+    }
+
+    /**
+     * Prevede pocet bajtu na citelny retezec.
+     * 
+     * @param bajty
+     *            pocet bajtu
+     * @return retezec s jednotkou B, KiB, MiB nebo GiB
+     */
+    public static String velikost(long bajty) {
+	String[] jednotky = { "B", "KiB", "MiB", "GiB" };
+	double hodnota = bajty;
+	int jednotka = 0;
+	while (hodnota >= 1024 && jednotka < jednotky.length - 1) {
+	    hodnota /= 1024;
+	    jednotka++;
+	}
+	return String.format("%.1f %s", hodnota, jednotky[jednotka]);
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+	StringBuilder sb = new StringBuilder();
+	sb.append("Automaticka volba reprezentace: ");
+	sb.append(matice ? "matice sousednosti" : "seznam sousednosti");
+	sb.append(String.format("%n  V = %d, sousednosti = %d, hustota = %.4f",
+		pocetVrcholu, pocetSousedu, hustota));
+	sb.append(String.format("%n  stupne: min = %d, prumer = %.2f, max = %d",
+		minStupen, pocetVrcholu == 0 ? 0.0 : (double) pocetSousedu / pocetVrcholu, maxStupen));
+	sb.append("\n  histogram stupnu:");
+	for (int index = 0; index < histogram.length; index++) {
+	    if (histogram[index] != 0) {
+		long od = index == 0 ? 0 : 1L << (index - 1);
+		sb.append(" [" + od + ".." + ((1L << index) - 1) + "]=" + histogram[index]);
+	    }
+	}
+	sb.append(String.format("%n  odhad pameti: seznam %s, matice %s, slovnik klicu %s",
+		velikost(pametSeznam), velikost(pametMatice), velikost(pametSlovnik)));
+	sb.append(String.format("%n  odhad operaci: seznam %.3g, matice %.3g",
+		casSeznam, casMatice));
+	return sb.toString();
+    }
+}
\ No newline at end of file
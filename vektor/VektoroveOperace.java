@@ -0,0 +1,96 @@
+package semestralka;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vektorova implementace operaci nad bitovymi vektory. Jednou instrukci
+ * zpracuje tolik 64bitovych slov, kolik jich se vejde do SIMD registru
+ * (napr. 4 slova, tj. 256 vrcholu, pro AVX2). Zbytek pole, ktery se do
+ * celych registru nevejde, se dopocita skalarne.
+ * 
+ * Trida je ve zvlastnim adresari <code>vektor</code>, aby se zbytek programu
+ * dal prelozit bez modulu <code>jdk.incubator.vector</code>. Preklada se
+ * zvlast, az po ostatnich tridach:
+ * 
+ * <pre>
+ * javac --add-modules jdk.incubator.vector -cp tridy -d tridy \
+ *     vektor/VektoroveOperace.java
+ * </pre>
+ * 
+ * Nacita ji jen {@link BitovaMatice} reflexi, a to pouze tehdy, kdyz byl JVM
+ * spusten s parametrem <code>--add-modules jdk.incubator.vector</code>.
+ * 
+ * @author Martin Zlamal
+ */
+class VektoroveOperace implements BitoveOperace {
+    /** Nejsirsi druh vektoru, ktery procesor podporuje. */
+    private static final VectorSpecies<Long> DRUH = LongVector.SPECIES_PREFERRED;
+
+    /* (non-Javadoc)
+     * @see semestralka.BitoveOperace#or(long[], long[])
+     */
+    @Override
+    public void or(long[] cil, long[] zdroj) {
+	int index = 0;
+	for (int hranice = DRUH.loopBound(cil.length); index < hranice; index += DRUH.length()) {
+	    LongVector a = LongVector.fromArray(DRUH, cil, index);
+	    LongVector b = LongVector.fromArray(DRUH, zdroj, index);
+	    a.or(b).intoArray(cil, index);
+	}
+	for (; index < cil.length; index++) {
+	    cil[index] |= zdroj[index];
+	}
+    }
+
+    /* (non-Javadoc)
+     * @see semestralka.BitoveOperace#andNot(long[], long[])
+     */
+    @Override
+    public int andNot(long[] cil, long[] maska) {
+	int index = 0;
+	for (int hranice = DRUH.loopBound(cil.length); index < hranice; index += DRUH.length()) {
+	    LongVector a = LongVector.fromArray(DRUH, cil, index);
+	    LongVector b = LongVector.fromArray(DRUH, maska, index);
+	    a.lanewise(VectorOperators.AND_NOT, b).intoArray(cil, index);
+	}
+	for (; index < cil.length; index++) {
+	    cil[index] &= ~maska[index];
+	}
+	int pocet = 0;
+	for (index = 0; index < cil.length; index++) {
+	    pocet += Long.bitCount(cil[index]);
+	}
+	return pocet;
+    }
+
+    /* (non-Javadoc)
+     * @see semestralka.BitoveOperace#prunik(long[], long[])
+     */
+    @Override
+    public boolean prunik(long[] a, long[] b) {
+	int index = 0;
+	for (int hranice = DRUH.loopBound(a.length); index < hranice; index += DRUH.length()) {
+	    LongVector va = LongVector.fromArray(DRUH, a, index);
+	    LongVector vb = LongVector.fromArray(DRUH, b, index);
+	    if (va.and(vb).compare(VectorOperators.NE, 0L).anyTrue()) {
+		return true;
+	    }
+	}
+	for (; index < a.length; index++) {
+	    if ((a[index] & b[index]) != 0) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /* (non-Javadoc)
+     * @see semestralka.BitoveOperace#getNazev()
+     */
+    @Override
+    public String getNazev() {
+	return "vektorova (" + DRUH.vectorBitSize() + " bitu)";
+    }
+}
\ No newline at end of file